@@ -0,0 +1,103 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the bankers, on the boards seen at every stage of many games.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BankerBenchmark {
+
+    /** Number of boards the offers are made for (a power of 2). */
+    private static final int BOARDS = 1024;
+
+    /** Number of briefcases on the board. */
+    @Param({"26", "1000"})
+    public int size;
+
+    /** Name of the banker. */
+    @Param({"bradley", "table", "stage"})
+    public String banker;
+
+    /** The banker, with its tables built for the board. */
+    private Object instance;
+    /** Total money in the unopened cases of each board. */
+    private double[] totals;
+    /** Number of unopened cases of each board. */
+    private int[] counts;
+    /** Largest amount in the unopened cases of each board. */
+    private double[] maxes;
+    /** Stage of each board. */
+    private int[] stages;
+    /** Index of the next board. */
+    private int next;
+
+    /**
+     * Makes the banker and samples boards at random stages of random games, with the number
+     * of unopened cases that the board's round schedule has at each stage.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        Object game = (Object) Model.NEW_BRIEFCASES.invokeExact(Model.values(size));
+        instance = (Object) Model.CREATE_BANKER.invokeExact(banker, game);
+
+        // Find the number of unopened cases at each stage's offer
+        int numStages = (int) Model.NUM_STAGES.invokeExact(game);
+        int[] remaining = new int[numStages];
+        int opened = 0;
+        for (int s = 0; s < numStages; s++) {
+            opened += (int) Model.CASES_IN_ROUND.invokeExact(game, s);
+            remaining[s] = size - opened;
+        }
+
+        // Remove random cases from the sorted values down to the number left at a random stage
+        double[] values = Model.values(size);
+        Arrays.sort(values);
+        SplittableRandom random = new SplittableRandom(0);
+        totals = new double[BOARDS];
+        counts = new int[BOARDS];
+        maxes = new double[BOARDS];
+        stages = new int[BOARDS];
+        for (int b = 0; b < BOARDS; b++) {
+            int stage = random.nextInt(numStages);
+            int cnt = remaining[stage];
+            boolean[] kept = new boolean[size];
+            for (int k = 0; k < cnt; ) {
+                int i = random.nextInt(size);
+                if (!kept[i]) {
+                    kept[i] = true;
+                    k++;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (kept[i]) {
+                    totals[b] += values[i];
+                    maxes[b] = values[i];
+                }
+            }
+            counts[b] = cnt;
+            stages[b] = stage;
+        }
+    }
+
+    /**
+     * Makes the offer for the next board.
+     * @return the offer.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public double offer() throws Throwable {
+        int b = next++ & (BOARDS - 1);
+        return (double) Model.BANKER_OFFER.invokeExact(instance, totals[b], counts[b], maxes[b], stages[b]);
+    }
+}
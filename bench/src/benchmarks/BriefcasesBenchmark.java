@@ -0,0 +1,143 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the hot paths of the <code>Briefcases</code> game model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BriefcasesBenchmark {
+
+    /** Number of briefcases on the board. */
+    @Param({"26", "1000", "100000"})
+    public int size;
+
+    /** The game, played up to a regular round. */
+    private Object game;
+    /** The game's banker, set again to throw away the memoized offer. */
+    private Object banker;
+    /** A fresh game for the full game benchmark. */
+    private Object fullGame;
+    /** A fresh game for the <code>updateCases</code> benchmark. */
+    private Object updateGame;
+    /** Selections with every other case taken (3), as the GUI passes them. */
+    private int[] selections;
+
+    /**
+     * Makes the boards and plays the first game up to its second round.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        game = (Object) Model.NEW_BRIEFCASES.invokeExact(Model.values(size));
+        fullGame = (Object) Model.NEW_BRIEFCASES.invokeExact(Model.values(size));
+        updateGame = (Object) Model.NEW_BRIEFCASES.invokeExact(Model.values(size));
+
+        // Choose a case and play through the first offer
+        Model.CASE_CHOSEN.invokeExact(game, 0);
+        int next = 1;
+        while (!(boolean) Model.DEAL_OR_NO_DEAL.invokeExact(game)) {
+            Model.OPEN_CASE.invokeExact(game, next++);
+        }
+        Model.CASE_OPENED.invokeExact(game);
+        banker = (Object) Model.GET_BANKER.invokeExact(game);
+
+        selections = new int[size];
+        for (int i = 1; i < size; i += 2) {
+            selections[i] = 3;
+        }
+    }
+
+    /**
+     * Resets the board for a new game.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public void newGame() throws Throwable {
+        Model.NEW_GAME.invokeExact(fullGame);
+    }
+
+    /**
+     * Resets the board and removes every other case, as the GUI does before an offer.
+     * Subtract the <code>newGame</code> score to get the cost of <code>updateCases</code>.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public void newGameAndUpdateCases() throws Throwable {
+        Model.NEW_GAME.invokeExact(updateGame);
+        Model.UPDATE_CASES.invokeExact(updateGame, selections);
+    }
+
+    /**
+     * Throws away the memoized offer by setting the same banker again.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public void invalidateOffer() throws Throwable {
+        Model.SET_BANKER.invokeExact(game, banker);
+    }
+
+    /**
+     * Throws away the memoized offer and asks for the banker's offer, so the offer is worked out again
+     * on every call, as it is after each case is opened. Subtract the <code>invalidateOffer</code> score
+     * to get the cost of <code>getOffer</code>.
+     * @return the offer.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public double invalidateAndGetOffer() throws Throwable {
+        Model.SET_BANKER.invokeExact(game, banker);
+        return (double) Model.GET_OFFER.invokeExact(game);
+    }
+
+    /**
+     * Checks if it is time for a deal.
+     * @return true if a deal is offered.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public boolean dealOrNoDeal() throws Throwable {
+        return (boolean) Model.DEAL_OR_NO_DEAL.invokeExact(game);
+    }
+
+    /**
+     * Gets the instruction for a regular round.
+     * @return the instruction.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public String getInstruction() throws Throwable {
+        return (String) Model.GET_INSTRUCTION.invokeExact(game);
+    }
+
+    /**
+     * Plays a full game without taking a deal, then keeps the chosen case.
+     * @param blackhole consumes the offers, so they are not optimized away.
+     * @throws Throwable if the model cannot be called.
+     */
+    @Benchmark
+    public void fullGame(Blackhole blackhole) throws Throwable {
+        Object board = fullGame;
+        Model.NEW_GAME.invokeExact(board);
+        Model.CASE_CHOSEN.invokeExact(board, 0);
+        int next = 1;
+        while (!(boolean) Model.IS_DONE.invokeExact(board, 2)) {
+            if ((boolean) Model.DEAL_OR_NO_DEAL.invokeExact(board)) {
+                blackhole.consume((double) Model.GET_OFFER.invokeExact(board));
+                Model.CASE_OPENED.invokeExact(board);
+            } else {
+                Model.OPEN_CASE.invokeExact(board, next++);
+            }
+        }
+        Model.UPDATE_LAST_CASE.invokeExact(board, 0);
+        Model.CASE_OPENED.invokeExact(board);
+    }
+}
@@ -0,0 +1,124 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Method handles to the game model.
+ * JMH does not allow benchmarks in the default package, and classes in the
+ * default package cannot be imported, so the model is reached through handles.
+ * The handles are constants, so the JIT compiles them into direct calls.
+ */
+final class Model {
+
+    /** Default cash values of the 26 case board. */
+    static final double[] DEFAULT_VALUES = {0.01, 1.0, 5.0, 10.0, 25.0, 50.0, 75.0, 100.0, 200.0, 300.0, 400.0,
+            500.0, 750.0, 1000.0, 5000.0, 10000.0, 25000.0, 50000.0, 75000.0, 100000.0, 200000.0, 300000.0,
+            400000.0, 500000.0, 750000.0, 1000000.0};
+
+    /** <code>new Briefcases(double[])</code> */
+    static final MethodHandle NEW_BRIEFCASES;
+    /** <code>Briefcases.newGame()</code> */
+    static final MethodHandle NEW_GAME;
+    /** <code>Briefcases.caseChosen(int)</code> */
+    static final MethodHandle CASE_CHOSEN;
+    /** <code>Briefcases.caseOpened()</code> */
+    static final MethodHandle CASE_OPENED;
+    /** <code>Briefcases.openCase(int)</code> */
+    static final MethodHandle OPEN_CASE;
+    /** <code>Briefcases.updateCases(int[])</code> */
+    static final MethodHandle UPDATE_CASES;
+    /** <code>Briefcases.getOffer()</code> */
+    static final MethodHandle GET_OFFER;
+    /** <code>Briefcases.dealOrNoDeal()</code> */
+    static final MethodHandle DEAL_OR_NO_DEAL;
+    /** <code>Briefcases.getInstruction()</code> */
+    static final MethodHandle GET_INSTRUCTION;
+    /** <code>Briefcases.isDone(int)</code> */
+    static final MethodHandle IS_DONE;
+    /** <code>Briefcases.tookDeal()</code> */
+    static final MethodHandle TOOK_DEAL;
+    /** <code>Briefcases.updateLastCase(int)</code> */
+    static final MethodHandle UPDATE_LAST_CASE;
+    /** <code>Briefcases.getBanker()</code> */
+    static final MethodHandle GET_BANKER;
+    /** <code>Briefcases.setBanker(Banker)</code> */
+    static final MethodHandle SET_BANKER;
+    /** <code>Briefcases.numStages()</code> */
+    static final MethodHandle NUM_STAGES;
+    /** <code>Briefcases.casesInRound(int)</code> */
+    static final MethodHandle CASES_IN_ROUND;
+    /** <code>Banker.create(String, Briefcases)</code> */
+    static final MethodHandle CREATE_BANKER;
+    /** <code>Banker.offer(double, int, double, int)</code> */
+    static final MethodHandle BANKER_OFFER;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> briefcases = Class.forName("Briefcases");
+            NEW_BRIEFCASES = lookup.findConstructor(briefcases, MethodType.methodType(void.class, double[].class))
+                    .asType(MethodType.methodType(Object.class, double[].class));
+            NEW_GAME = virtual(lookup, briefcases, "newGame", void.class);
+            CASE_CHOSEN = virtual(lookup, briefcases, "caseChosen", void.class, int.class);
+            CASE_OPENED = virtual(lookup, briefcases, "caseOpened", void.class);
+            OPEN_CASE = virtual(lookup, briefcases, "openCase", void.class, int.class);
+            UPDATE_CASES = virtual(lookup, briefcases, "updateCases", void.class, int[].class);
+            GET_OFFER = virtual(lookup, briefcases, "getOffer", double.class);
+            DEAL_OR_NO_DEAL = virtual(lookup, briefcases, "dealOrNoDeal", boolean.class);
+            GET_INSTRUCTION = virtual(lookup, briefcases, "getInstruction", String.class);
+            IS_DONE = virtual(lookup, briefcases, "isDone", boolean.class, int.class);
+            TOOK_DEAL = virtual(lookup, briefcases, "tookDeal", void.class);
+            UPDATE_LAST_CASE = virtual(lookup, briefcases, "updateLastCase", void.class, int.class);
+            NUM_STAGES = virtual(lookup, briefcases, "numStages", int.class);
+            CASES_IN_ROUND = virtual(lookup, briefcases, "casesInRound", int.class, int.class);
+            Class<?> banker = Class.forName("Banker");
+            GET_BANKER = virtual(lookup, briefcases, "getBanker", banker)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            SET_BANKER = virtual(lookup, briefcases, "setBanker", void.class, banker)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            CREATE_BANKER = lookup.findStatic(banker, "create", MethodType.methodType(banker, String.class, briefcases))
+                    .asType(MethodType.methodType(Object.class, String.class, Object.class));
+            BANKER_OFFER = virtual(lookup, banker, "offer", double.class, double.class, int.class, double.class, int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Should not be instantiated.
+     */
+    private Model() {
+    }
+
+    /**
+     * Finds a public method of a model class and makes its receiver an <code>Object</code>.
+     * @param lookup the lookup to find the method with.
+     * @param owner the model class.
+     * @param name the name of the method.
+     * @param returnType the return type of the method.
+     * @param parameterTypes the parameter types of the method.
+     * @return a method handle taking the receiver as an <code>Object</code>.
+     * @throws ReflectiveOperationException if the method does not exist.
+     */
+    static MethodHandle virtual(MethodHandles.Lookup lookup, Class<?> owner, String name, Class<?> returnType,
+                                Class<?>... parameterTypes) throws ReflectiveOperationException {
+        MethodType type = MethodType.methodType(returnType, parameterTypes);
+        return lookup.findVirtual(owner, name, type).asType(type.insertParameterTypes(0, Object.class));
+    }
+
+    /**
+     * Makes the cash values for a board of any size.
+     * @param size the number of briefcases.
+     * @return the default values for 26 cases, otherwise the values $10 to $10 * <code>size</code>.
+     */
+    static double[] values(int size) {
+        if (size == DEFAULT_VALUES.length) return DEFAULT_VALUES.clone();
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (i + 1) * 10.0;
+        }
+        return values;
+    }
+}
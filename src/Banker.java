@@ -0,0 +1,38 @@
+public interface Banker {
+
+    /**
+     * Calculates the banker's offer for a board.
+     * @param total the total money in the unopened cases.
+     * @param cnt the number of unopened cases.
+     * @param max the largest amount in the unopened cases.
+     * @param stage the index of the stage of the offer.
+     * @return the offer.
+     */
+    double offer(double total, int cnt, double max, int stage);
+
+    /**
+     * Makes a banker by name, with its tables built for a board.
+     * @param name "bradley", "table", "stage", or "bradley:" or "table:" followed by 6 coefficients separated by commas.
+     * @param game the board the banker makes offers for.
+     * @return the banker.
+     * @throws IllegalArgumentException if there is no banker with the name.
+     */
+    static Banker create(String name, Briefcases game) {
+        if (name.startsWith("bradley:")) {
+            return new BradleyBanker(BradleyBanker.parse(name.substring("bradley:".length())));
+        }
+        if (name.startsWith("table:")) {
+            return new TableBanker(new BradleyBanker(BradleyBanker.parse(name.substring("table:".length()))), game.size());
+        }
+        switch (name) {
+            case "bradley":
+                return new BradleyBanker();
+            case "table":
+                return new TableBanker(game.size());
+            case "stage":
+                return new StageBanker(game.numStages());
+            default:
+                throw new IllegalArgumentException(name + " is not a banker (bradley, table, or stage).");
+        }
+    }
+}
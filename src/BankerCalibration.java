@@ -0,0 +1,384 @@
+import java.text.DecimalFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class BankerCalibration {
+
+    /** Number of games a single task samples before it stops splitting. */
+    private static final long GAMES_PER_TASK = 10_000;
+    /** Number of coefficients, and so the size of the normal equations. */
+    private static final int N = BradleyBanker.COEFFICIENTS;
+
+    /** Array with all possible cash values (sorted). */
+    private final double[] cashValues;
+    /** ith element is the number of cases opened in the round before the offer of stage #i. */
+    private final int[] roundCases;
+    /** ith element is the fraction of the mean of the remaining cash that the offer of stage #i should be. */
+    private final double[] target;
+    /** Sum of all possible cash values. */
+    private final double cashTotal;
+    /** Scale of the money terms, so every column of the normal equations is about the same size. */
+    private final double moneyScale;
+    /** Scale of the terms of the number of cases. */
+    private final double countScale;
+    /** Seed of the generator that is split between the tasks. */
+    private final long seed;
+
+    /**
+     * Initialize the <code>BankerCalibration</code>. The same seed always samples the same boards,
+     * no matter how many cores there are or how the tasks are scheduled.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param target the fraction of the mean of the remaining cash to offer at each stage, with the last repeated for later stages.
+     * @param seed the seed of the boards.
+     */
+    public BankerCalibration(double[] moneyValues, double[] target, long seed) {
+        if (target.length == 0) {
+            throw new IllegalArgumentException("The target must have at least 1 stage.");
+        }
+        Briefcases board = new Briefcases(moneyValues.clone());
+        if (board.numStages() == 0) {
+            throw new IllegalArgumentException("The board has no offers to calibrate.");
+        }
+        cashValues = board.cashValues;
+        roundCases = new int[board.numStages()];
+        this.target = new double[board.numStages()];
+        for (int i = 0; i < roundCases.length; i++) {
+            roundCases[i] = board.casesInRound(i);
+            this.target[i] = target[Math.min(i, target.length - 1)];
+        }
+        double sum = 0.0;
+        for (double value : cashValues) {
+            sum += value;
+        }
+        cashTotal = sum;
+        moneyScale = Math.max(cashValues[cashValues.length - 1], Double.MIN_NORMAL);
+        countScale = cashValues.length;
+        this.seed = seed;
+    }
+
+    /**
+     * Parses a target offer curve: fractions of the mean for each stage separated by commas,
+     * such as "0.2,0.3,0.5", or the first and last fraction with even steps between, such as "0.15:0.95".
+     * @param text the target.
+     * @param numStages the number of stages of the board.
+     * @return the fraction of the mean to offer at each stage.
+     * @throws IllegalArgumentException if the text is not a target.
+     */
+    public static double[] parseTarget(String text, int numStages) {
+        try {
+            double[] target;
+            if (text.contains(":")) {
+                String[] ends = text.split(":");
+                if (ends.length != 2) throw new IllegalArgumentException(text + " is not a target.");
+                double first = Double.parseDouble(ends[0]);
+                double last = Double.parseDouble(ends[1]);
+                target = new double[Math.max(1, numStages)];
+                for (int i = 0; i < target.length; i++) {
+                    double progress = (target.length == 1) ? 1.0 : (double) i / (target.length - 1);
+                    target[i] = first + (last - first) * progress;
+                }
+            } else {
+                String[] parts = text.split(",");
+                target = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    target[i] = Double.parseDouble(parts[i].trim());
+                }
+            }
+            for (double fraction : target) {
+                if (!(fraction > 0.0) || Double.isInfinite(fraction)) {
+                    throw new IllegalArgumentException(text + " has a fraction that is not positive.");
+                }
+            }
+            return target;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(text + " is not a target.");
+        }
+    }
+
+    /**
+     * Fits the coefficients of Bradley's formula to the target on all cores. Every offer of every sampled
+     * game is a row of a least-squares problem, weighted so the error is relative to the mean. The formula is
+     * linear in its coefficients, so each task only adds up the 6 by 6 normal equations of its rows,
+     * and the sums of the tasks are added and solved once.
+     * @param games the number of games to sample, each with an offer at every stage.
+     * @return the coefficients, for <code>BradleyBanker</code>.
+     */
+    public double[] fit(long games) {
+        double[] sums = ForkJoinPool.commonPool().invoke(new CalibrationTask(games, new SplittableRandom(seed), null));
+
+        // Fill in the lower triangle of the normal matrix, and damp it slightly in case a term never varies
+        double[][] a = new double[N][N + 1];
+        int k = 0;
+        for (int i = 0; i < N; i++) {
+            for (int j = i; j < N; j++) {
+                a[i][j] = sums[k];
+                a[j][i] = sums[k++];
+            }
+        }
+        double trace = 0.0;
+        for (int i = 0; i < N; i++) {
+            a[i][N] = sums[k++];
+            trace += a[i][i];
+        }
+        for (int i = 0; i < N; i++) {
+            a[i][i] += 1e-12 * trace / N;
+        }
+        double[] scaled = solve(a);
+
+        // Undo the scaling of the terms
+        return new double[] {
+                scaled[0] * moneyScale,
+                scaled[1],
+                scaled[2] * moneyScale / countScale,
+                scaled[3],
+                scaled[4] / moneyScale,
+                scaled[5] * moneyScale / (countScale * countScale)};
+    }
+
+    /**
+     * Plays the sampled games again with a banker and measures its offers.
+     * @param banker the banker.
+     * @param games the number of games to sample, the same as for <code>fit</code> to check the fit itself.
+     * @return an array with the mean offered fraction of the mean at each stage, followed by the root mean square
+     * of the offers' error relative to the mean over all stages.
+     */
+    public double[] evaluate(Banker banker, long games) {
+        double[] sums = ForkJoinPool.commonPool().invoke(new CalibrationTask(games, new SplittableRandom(seed), banker));
+        double[] result = new double[roundCases.length + 1];
+        double squares = 0.0;
+        for (int s = 0; s < roundCases.length; s++) {
+            result[s] = sums[s] / games;
+            squares += sums[roundCases.length + s];
+        }
+        result[roundCases.length] = Math.sqrt(squares / (games * roundCases.length));
+        return result;
+    }
+
+    /**
+     * Solves a system of linear equations by Gaussian elimination with partial pivoting.
+     * @param a the augmented matrix, which is changed.
+     * @return the solution.
+     */
+    private static double[] solve(double[][] a) {
+        int n = a.length;
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < n; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) pivot = row;
+            }
+            double[] swap = a[col];
+            a[col] = a[pivot];
+            a[pivot] = swap;
+            if (a[col][col] == 0.0) continue;
+            for (int row = col + 1; row < n; row++) {
+                double factor = a[row][col] / a[col][col];
+                for (int j = col; j <= n; j++) {
+                    a[row][j] -= factor * a[col][j];
+                }
+            }
+        }
+        double[] x = new double[n];
+        for (int row = n - 1; row >= 0; row--) {
+            double value = a[row][n];
+            for (int j = row + 1; j < n; j++) {
+                value -= a[row][j] * x[j];
+            }
+            x[row] = (a[row][row] == 0.0) ? 0.0 : value / a[row][row];
+        }
+        return x;
+    }
+
+    /**
+     * Splits the games to sample until each task is small enough to run on one thread.
+     * The generator is split along with the games, so every task has its own stream
+     * of boards that only depends on where the task is in the tree of splits.
+     */
+    private class CalibrationTask extends RecursiveTask<double[]> {
+
+        /** Number of games for this task to sample. */
+        private final long games;
+        /** Generator of the shuffles of this task's games. */
+        private final SplittableRandom random;
+        /** Banker whose offers are measured, or null to add up the normal equations. */
+        private final Banker banker;
+
+        /**
+         * Initialize the task.
+         * @param games the number of games to sample.
+         * @param random the generator of the shuffles, used only by this task.
+         * @param banker the banker whose offers are measured, or null to add up the normal equations.
+         */
+        CalibrationTask(long games, SplittableRandom random, Banker banker) {
+            this.games = games;
+            this.random = random;
+            this.banker = banker;
+        }
+
+        /**
+         * Samples the games or splits them between two subtasks.
+         * @return the sums of the task's offers.
+         */
+        protected double[] compute() {
+            if (games > GAMES_PER_TASK) {
+                CalibrationTask left = new CalibrationTask(games / 2, random.split(), banker);
+                CalibrationTask right = new CalibrationTask(games - games / 2, random, banker);
+                left.fork();
+                double[] result = right.compute();
+                double[] other = left.join();
+                for (int i = 0; i < result.length; i++) {
+                    result[i] += other[i];
+                }
+                return result;
+            }
+            double[] sums = (banker == null) ? new double[N * (N + 1) / 2 + N] : new double[2 * roundCases.length];
+            double[] row = new double[N];
+            int[] order = new int[cashValues.length];
+            boolean[] taken = new boolean[cashValues.length];
+            for (long g = 0; g < games; g++) {
+
+                // Shuffle the cases, keep the first one, and open the rest in order
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i;
+                }
+                for (int i = order.length - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int cash = order[i];
+                    order[i] = order[j];
+                    order[j] = cash;
+                }
+                double total = cashTotal;
+                int cnt = order.length;
+                int top = order.length - 1;
+                int next = 1;
+                for (int s = 0; s < roundCases.length; s++) {
+                    for (int i = 0; i < roundCases[s]; i++) {
+                        int v = order[next++];
+                        taken[v] = true;
+                        total -= cashValues[v];
+                        cnt--;
+                    }
+                    while (taken[top]) top--;
+                    double mean = total / cnt;
+                    if (banker != null) {
+                        double fraction = (mean > 0.0) ? banker.offer(total, cnt, cashValues[top], s) / mean : 1.0;
+                        sums[s] += fraction;
+                        sums[roundCases.length + s] += (fraction - target[s]) * (fraction - target[s]);
+                    } else if (mean > 0.0) {
+                        addRow(sums, row, mean / moneyScale, cnt / countScale, cashValues[top] / moneyScale, target[s]);
+                    }
+                }
+                for (int i = 1; i < next; i++) {
+                    taken[order[i]] = false;
+                }
+            }
+            return sums;
+        }
+
+        /**
+         * Adds an offer to the normal equations, with the terms and the target divided by the mean,
+         * so the error that is minimized is relative to the mean.
+         * @param sums the upper triangle of the normal matrix, followed by the right-hand side.
+         * @param row space for the terms of the offer.
+         * @param mean the scaled mean of the remaining cash.
+         * @param cnt the scaled number of unopened cases.
+         * @param max the scaled largest amount in the unopened cases.
+         * @param fraction the target fraction of the mean.
+         */
+        private void addRow(double[] sums, double[] row, double mean, double cnt, double max, double fraction) {
+            row[0] = 1.0 / mean;
+            row[1] = 1.0;
+            row[2] = cnt / mean;
+            row[3] = max / mean;
+            row[4] = mean;
+            row[5] = cnt * cnt / mean;
+            int k = 0;
+            for (int i = 0; i < N; i++) {
+                for (int j = i; j < N; j++) {
+                    sums[k++] += row[i] * row[j];
+                }
+            }
+            for (int i = 0; i < N; i++) {
+                sums[k++] += row[i] * fraction;
+            }
+        }
+    }
+
+    /**
+     * Calibrates the banker for a board and prints the coefficients, the banker name to play with them, and the fit.
+     * @param args the number of games, the target offer curve, and optionally custom briefcase values.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length == 3) {
+            Main.sendError("Usage: java -cp DealOrNoDeal.jar BankerCalibration <games> <target> <Briefcase Values>");
+        }
+
+        // Parse the calibration settings
+        long games = 0;
+        try {
+            games = Long.parseLong(args[0]);
+        } catch (NumberFormatException e) {
+            Main.sendError(args[0] + " is not a number of games.");
+        }
+        if (games <= 0) {
+            Main.sendError("There must be at least 1 game.");
+        }
+
+        // Use default values if no briefcase values are given
+        double[] arr;
+        if (args.length == 2) {
+            arr = new double[]{0.01, 1.0, 5.0, 10.0, 25.0, 50.0, 75.0, 100.0, 200.0, 300.0, 400.0, 500.0, 750.0,
+                    1000.0, 5000.0, 10000.0, 25000.0, 50000.0, 75000.0, 100000.0, 200000.0, 300000.0, 400000.0,
+                    500000.0, 750000.0, 1000000.0};
+        } else {
+            arr = new double[args.length - 2];
+            for (int i = 0; i < arr.length; i++) {
+                try {
+                    arr[i] = Double.parseDouble(args[i + 2]);
+                    if (arr[i] < 0.0) {
+                        Main.sendError(args[i + 2] + " is a negative number.");
+                    }
+                } catch (NumberFormatException e) {
+                    Main.sendError(args[i + 2] + " is not a number.");
+                }
+            }
+        }
+
+        // Use the seed if one is given, so the same boards can be sampled again
+        long seed = new SplittableRandom().nextLong();
+        String seedProperty = System.getProperty("seed", "");
+        if (!seedProperty.isEmpty()) {
+            try {
+                seed = Long.parseLong(seedProperty);
+            } catch (NumberFormatException e) {
+                Main.sendError(seedProperty + " is not a seed.");
+            }
+        }
+        BankerCalibration calibration = null;
+        try {
+            int numStages = new Briefcases(arr.clone()).numStages();
+            calibration = new BankerCalibration(arr, parseTarget(args[1], numStages), seed);
+        } catch (IllegalArgumentException e) {
+            Main.sendError(e.getMessage());
+        }
+
+        // Fit the coefficients and check the offers they make, which fall back to the mean like any BradleyBanker
+        long start = System.nanoTime();
+        double[] coefficients = calibration.fit(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double[] fitted = calibration.evaluate(new BradleyBanker(coefficients), games);
+        double[] bradley = calibration.evaluate(new BradleyBanker(), games);
+
+        DecimalFormat formatter = new DecimalFormat("#,##0.00");
+        System.out.println("Seed: " + seed);
+        System.out.println("Offers: " + games * calibration.target.length);
+        System.out.println("Offers/second: " + formatter.format(games * calibration.target.length / seconds));
+        System.out.println("Banker: " + BradleyBanker.name(coefficients));
+        System.out.println("RMS error (fraction of the mean): " + formatter.format(fitted[calibration.target.length])
+                + ", Bradley's coefficients: " + formatter.format(bradley[calibration.target.length]));
+        System.out.println("Stage, target, calibrated, Bradley's (mean fraction of the mean offered)");
+        for (int s = 0; s < calibration.target.length; s++) {
+            System.out.printf("%d, %.3f, %.3f, %.3f%n", s + 1, calibration.target[s], fitted[s], bradley[s]);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+import java.awt.*;
+import java.awt.image.VolatileImage;
+import java.util.Map;
+import javax.swing.*;
+
+public class BoardView extends JComponent implements Scrollable {
+
+    /**
+     * Describes what is drawn in each cell of a <code>BoardView</code>.
+     */
+    public interface Cells {
+
+        /**
+         * Accesses the number of cells.
+         * @return the number of cells.
+         */
+        int count();
+
+        /**
+         * Accesses the image of a cell.
+         * @param i the index of the cell.
+         * @return the file name of the image, or null if the cell is hidden.
+         */
+        String image(int i);
+
+        /**
+         * Accesses the text of a cell.
+         * @param i the index of the cell.
+         * @return the text drawn over the image.
+         */
+        String text(int i);
+
+        /**
+         * Accesses the text color of a cell.
+         * @param i the index of the cell.
+         * @return the color of the text.
+         */
+        Color color(int i);
+
+        /**
+         * Accesses the font of a cell.
+         * @param i the index of the cell.
+         * @return the font of the text.
+         */
+        Font font(int i);
+    }
+
+    /** What is drawn in each cell. */
+    private final Cells cells;
+    /** Number of cells per row. */
+    private final int columns;
+    /** Width of a cell. */
+    private final int cellWidth;
+    /** Height of a cell. */
+    private final int cellHeight;
+    /** Distance between the x coords of two horizontally adjacent cells. */
+    private final int widthInc;
+    /** Distance between the y coords of two vertically adjacent cells. */
+    private final int heightInc;
+    /** Largest number of pixels of a view that is drawn through a back buffer. */
+    private static final int MAX_BUFFER_PIXELS = 1 << 22;
+    /** Accelerated copy of the whole view, or null before it is first drawn or if the view is too large. */
+    private VolatileImage buffer;
+    /** ith element is true if cell #i changed since it was last drawn to <code>buffer</code>. */
+    private boolean[] dirty;
+
+    /**
+     * Initialize the <code>BoardView</code>.
+     * @param cells what is drawn in each cell.
+     * @param columns the number of cells per row.
+     * @param cellWidth the width of a cell.
+     * @param cellHeight the height of a cell.
+     * @param widthInc the distance between the x coords of two horizontally adjacent cells.
+     * @param heightInc the distance between the y coords of two vertically adjacent cells.
+     */
+    public BoardView(Cells cells, int columns, int cellWidth, int cellHeight, int widthInc, int heightInc) {
+        this.cells = cells;
+        this.columns = columns;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.widthInc = widthInc;
+        this.heightInc = heightInc;
+        setOpaque(false);
+    }
+
+    /**
+     * Finds the cell at a point, with arithmetic instead of a search.
+     * @param p the point, relative to this component.
+     * @return the index of the cell, or -1 if there is no cell at the point.
+     */
+    public int cellAt(Point p) {
+        if (p.x < 0 || p.y < 0 || p.x % widthInc >= cellWidth || p.y % heightInc >= cellHeight) return -1;
+        int column = p.x / widthInc;
+        int i = (p.y / heightInc) * columns + column;
+        return (column < columns && i < cells.count()) ? i : -1;
+    }
+
+    /**
+     * Repaints a single cell.
+     * @param i the index of the cell.
+     */
+    public void repaintCell(int i) {
+        if (dirty != null) dirty[i] = true;
+        repaint((i % columns) * widthInc, (i / columns) * heightInc, cellWidth, cellHeight);
+    }
+
+    /**
+     * Draws the view. A view small enough to fit on the screen is kept in an accelerated back buffer,
+     * where only the cells that changed are drawn again, and the buffer is copied in a single call.
+     * A larger view draws the cells that are visible, so the cost does not depend on the number of cells.
+     * @param g the graphics context.
+     */
+    protected void paintComponent(Graphics g) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config == null || (long) getWidth() * getHeight() > MAX_BUFFER_PIXELS) {
+            paintCells(g);
+            return;
+        }
+
+        // Match the buffer to the screen's scale, so the text stays sharp on high DPI screens
+        double scale = ((Graphics2D) g).getTransform().getScaleX();
+        int width = (int) Math.ceil(getWidth() * scale);
+        int height = (int) Math.ceil(getHeight() * scale);
+        do {
+            int status = (buffer == null) ? VolatileImage.IMAGE_INCOMPATIBLE : buffer.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE || buffer.getWidth() != width || buffer.getHeight() != height) {
+                if (buffer != null) buffer.flush();
+                buffer = config.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
+                status = VolatileImage.IMAGE_RESTORED;
+            }
+            renderBuffer(status == VolatileImage.IMAGE_RESTORED, scale);
+            g.drawImage(buffer, 0, 0, getWidth(), getHeight(), this);
+        } while (buffer.contentsLost());
+    }
+
+    /**
+     * Draws the cells that changed to the back buffer.
+     * @param all true to draw every cell, such as when the buffer was created or its contents were lost.
+     * @param scale the scale of the screen.
+     */
+    private void renderBuffer(boolean all, double scale) {
+        if (dirty == null || dirty.length != cells.count()) {
+            dirty = new boolean[cells.count()];
+            all = true;
+        }
+        Graphics2D g = buffer.createGraphics();
+        g.scale(scale, scale);
+        Map<?, ?> hints = (Map<?, ?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+        if (hints != null) g.addRenderingHints(hints);
+        for (int i = 0; i < dirty.length; i++) {
+            if (all || dirty[i]) {
+                dirty[i] = false;
+                int x = (i % columns) * widthInc;
+                int y = (i / columns) * heightInc;
+
+                // Clear the old contents of the cell, since the view is transparent
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(x, y, cellWidth, cellHeight);
+                g.setComposite(AlphaComposite.SrcOver);
+                paintCell(g, i, x, y);
+            }
+        }
+        g.dispose();
+    }
+
+    /**
+     * Draws the cells that are visible directly, so the cost does not depend on the number of cells.
+     * @param g the graphics context.
+     */
+    private void paintCells(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(getSize());
+        int rows = (cells.count() + columns - 1) / columns;
+        int firstRow = Math.max(0, clip.y / heightInc);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height) / heightInc);
+        int firstColumn = Math.max(0, clip.x / widthInc);
+        int lastColumn = Math.min(columns - 1, (clip.x + clip.width) / widthInc);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int i = row * columns + column;
+                if (i < cells.count()) {
+                    paintCell(g, i, column * widthInc, row * heightInc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a cell with its image and text centered, like a <code>JLabel</code>.
+     * @param g the graphics context.
+     * @param i the index of the cell.
+     * @param x the x coord of the cell.
+     * @param y the y coord of the cell.
+     */
+    private void paintCell(Graphics g, int i, int x, int y) {
+        String image = cells.image(i);
+        if (image == null) return;
+        ImageIcon icon = RenderCache.icon(image);
+        g.drawImage(icon.getImage(), x + (cellWidth - icon.getIconWidth()) / 2, y + (cellHeight - icon.getIconHeight()) / 2, this);
+
+        String text = cells.text(i);
+        g.setFont(cells.font(i));
+        g.setColor(cells.color(i));
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, x + (cellWidth - metrics.stringWidth(text)) / 2, y + (cellHeight - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+    /**
+     * Accesses the size needed to show every cell.
+     * @return the preferred size.
+     */
+    public Dimension getPreferredSize() {
+        int rows = (cells.count() + columns - 1) / columns;
+        return new Dimension((columns - 1) * widthInc + cellWidth, Math.max(0, rows - 1) * heightInc + cellHeight);
+    }
+
+    /**
+     * Accesses the size of the viewport when scrolling.
+     * @return the preferred size.
+     */
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    /**
+     * Scrolls by one row at a time.
+     * @param visibleRect the visible area.
+     * @param orientation the scroll direction.
+     * @param direction less than 0 to scroll up, greater than 0 to scroll down.
+     * @return the distance between rows.
+     */
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return (orientation == SwingConstants.VERTICAL) ? heightInc : widthInc;
+    }
+
+    /**
+     * Scrolls by a page of whole rows at a time.
+     * @param visibleRect the visible area.
+     * @param orientation the scroll direction.
+     * @param direction less than 0 to scroll up, greater than 0 to scroll down.
+     * @return the height of the whole rows that fit in the visible area.
+     */
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        if (orientation == SwingConstants.VERTICAL) {
+            return Math.max(heightInc, visibleRect.height / heightInc * heightInc);
+        }
+        return Math.max(widthInc, visibleRect.width / widthInc * widthInc);
+    }
+
+    /**
+     * The width is fixed, so it does not follow the viewport.
+     * @return false.
+     */
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    /**
+     * The board is taller than the viewport, so it does not follow it.
+     * @return false.
+     */
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
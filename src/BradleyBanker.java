@@ -0,0 +1,96 @@
+public class BradleyBanker implements Banker {
+
+    /** Number of coefficients of the formula. */
+    public static final int COEFFICIENTS = 6;
+    /** Samuel D. Bradley's coefficients for the 26 case board. */
+    private static final double[] BRADLEY = {12275.30, 0.748, -2714.74, -0.040, 0.0000006986, 32.623};
+
+    /** Coefficients of the constant, the mean, the number of cases, the largest amount, the mean squared, and the number of cases squared. */
+    private final double[] coefficients;
+
+    /**
+     * Initialize the <code>BradleyBanker</code> with Samuel D. Bradley's coefficients.
+     */
+    public BradleyBanker() {
+        this(BRADLEY);
+    }
+
+    /**
+     * Initialize the <code>BradleyBanker</code> with other coefficients, such as ones calibrated for a board.
+     * @param coefficients the coefficients of the constant, the mean, the number of cases, the largest amount,
+     * the mean squared, and the number of cases squared.
+     */
+    public BradleyBanker(double[] coefficients) {
+        if (coefficients.length != COEFFICIENTS) {
+            throw new IllegalArgumentException("The formula has " + COEFFICIENTS + " coefficients.");
+        }
+        this.coefficients = coefficients.clone();
+    }
+
+    /**
+     * Parses the coefficients of a banker name such as "bradley:12275.3,0.748,-2714.74,-0.04,6.986E-7,32.623".
+     * @param text the coefficients separated by commas.
+     * @return the coefficients.
+     * @throws IllegalArgumentException if the text is not 6 numbers.
+     */
+    public static double[] parse(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != COEFFICIENTS) {
+            throw new IllegalArgumentException(text + " is not " + COEFFICIENTS + " coefficients.");
+        }
+        double[] coefficients = new double[COEFFICIENTS];
+        for (int i = 0; i < COEFFICIENTS; i++) {
+            try {
+                coefficients[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(parts[i] + " is not a coefficient.");
+            }
+            if (Double.isNaN(coefficients[i]) || Double.isInfinite(coefficients[i])) {
+                throw new IllegalArgumentException(parts[i] + " is not a coefficient.");
+            }
+        }
+        return coefficients;
+    }
+
+    /**
+     * Makes the banker name of coefficients, which <code>Banker.create</code> turns back into the same banker.
+     * @param coefficients the coefficients.
+     * @return the name, such as "bradley:12275.3,0.748,-2714.74,-0.04,6.986E-7,32.623".
+     */
+    public static String name(double[] coefficients) {
+        StringBuilder name = new StringBuilder("bradley:");
+        for (int i = 0; i < coefficients.length; i++) {
+            if (i > 0) name.append(',');
+            name.append(coefficients[i]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Accesses the coefficients of the formula.
+     * @return a copy of the coefficients.
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * Calculates the offer with Samuel D. Bradley's formula, falling back to the mean
+     * if the formula's offer is not positive or is more than the largest amount.
+     * @param total the total money in the unopened cases.
+     * @param cnt the number of unopened cases.
+     * @param max the largest amount in the unopened cases.
+     * @param stage the index of the stage of the offer (not used).
+     * @return the offer.
+     */
+    public double offer(double total, int cnt, double max, int stage) {
+
+        // Samuel D. Bradley's Formula - https://commcognition.blogspot.com/2007/06/deal-or-no-deal-bankers-formula.html
+        double[] c = coefficients;
+        double value = c[0] + (c[1] * (total / cnt)) + (c[2] * cnt) + (c[3] * max) + (c[4] * Math.pow((total/cnt), 2)) + (c[5] * Math.pow(cnt, 2));
+
+        // Return an offer
+        if (value > 0 && !(value > max)) return value;
+        else return total / cnt;
+    }
+}
@@ -1,63 +1,190 @@
-import java.text.DecimalFormat;
-import java.util.*;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 public class Briefcases {
 
     /** Array with all possible cash values. */
-    public Double[] cashValues;
-    /** ArrayList to contain the briefcases' cash during the game. */
-    private ArrayList<Double> briefcases;
+    public double[] cashValues;
+    /** ith element is cash value #i in cents, so the statistics add up exactly. */
+    private final long[] cashCents;
+    /** Array to contain the index in <code>cashValues</code> of each briefcase's cash during the game. */
+    private final int[] briefcases;
+    /** Bitset with a set bit for every index in <code>cashValues</code> that has not been opened (sorted remaining values). */
+    private final long[] remainingValues;
+    /** Index in <code>cashValues</code> of the largest remaining cash value. */
+    private int maxIndex;
+    /** Index in <code>cashValues</code> of the smallest remaining cash value. */
+    private int minIndex;
+    /** The banker's offer for the current board, cached until another case is opened. */
+    private double offer;
+    /** Flag that tracks if <code>offer</code> is up to date with the board. */
+    private boolean offerValid;
+    /** The banker that makes the offers. */
+    private Banker banker = new BradleyBanker();
+    /** Number of calls to the timed methods, to pick the calls that are timed. */
+    private int calls;
+    /** A call is timed when <code>calls</code> has none of these bits set. */
+    private int sampleMask = GameMetrics.MODEL_SAMPLE_RATE - 1;
+    /** Number of games that ended since the counts were last added to the game metrics. */
+    private int gamesPlayed;
+    /** Number of deals taken since the counts were last added to the game metrics. */
+    private int dealsTaken;
+    /** Number of offers calculated since the counts were last added to the game metrics. */
+    private int offersGenerated;
+    /** Random number generator for the seed of each game, never shared with another board. */
+    private final SplittableRandom seeds;
+    /** Seed of the current game's shuffle. */
+    private long seed;
+    /** Log that the events of every game are recorded to, or null if there is none. */
+    private GameLog log;
+    /** Publisher that the events of every game are sent to, or null if there is none. */
+    private GameEvents events;
+    /** Flag that tracks if an offer was answered and it is not yet known whether it was taken. */
+    private boolean decisionPending;
+    /** Sum of all possible cash values. */
+    private double cashTotal;
     /** The chosen briefcase's index */
     private int chosen;
     /** Keeps track of the stages of the game (every decision made by the user). */
     private int opened;
     /** Array with the stages to make a deal or no deal. */
     private int[] stages;
+    /** Index of the first stage in <code>stages</code> that has not been passed. */
+    private int nextStage;
     /** Total money in the cases on the game board. */
     private double total;
     /** Total number of cases on the game board. */
     private int cnt;
     /** Flag that tracks if the game has ended. */
     private boolean done;
-    /** Current earnings from a round. */
-    private double earnings = 0.0;
-    /** Current possible earnings from a round. */
-    private double possible = 0.0;
-    /** Total earnings from all games. */
-    private double totalEarnings = 0.0;
-    /** Total possible earnings from all games */
-    private double totalPossible = 0.0;
-    /** DecimalFormat to format cash values. */
-    private final DecimalFormat formatter = new DecimalFormat("#,##0.00");
+    /** Current earnings from a round, in cents. */
+    private long earnings = 0;
+    /** Current possible earnings from a round, in cents. */
+    private long possible = 0;
+    /** Cash in the final case that was not taken, in cents. */
+    private long otherCash = 0;
+    /** Total earnings from all games, in cents. */
+    private long totalEarnings = 0;
+    /** Total possible earnings from all games, in cents. */
+    private long totalPossible = 0;
+    /** Latest immutable version of the board, or null until a snapshot is first taken. */
+    private volatile GameState state;
+    /** Persistent copy of <code>remainingValues</code> for the next version, or null until a snapshot is first taken. */
+    private GameState.Bits stateBits;
+    /** Increment of the SplitMix64 state for each random number of a shuffle. */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
 
     /**
      * Initialize the <code>Briefcases</code> game object.
      * @param moneyValues an array with the possible cash values in the cases.
      */
-    public Briefcases(Double[] moneyValues) {
+    public Briefcases(double[] moneyValues) {
+        this(moneyValues, new SplittableRandom());
+    }
+
+    /**
+     * Initialize the <code>Briefcases</code> game object with reproducible games.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param seed the seed of the generator for the seeds of the games.
+     */
+    public Briefcases(double[] moneyValues, long seed) {
+        this(moneyValues, new SplittableRandom(seed));
+    }
+
+    /**
+     * Initialize the <code>Briefcases</code> game object.
+     * Parallel boards should each get their own <code>split()</code> of one generator,
+     * so their games are independent and reproducible without sharing any state.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param random the generator for the seeds of the games, used only by this board.
+     */
+    public Briefcases(double[] moneyValues, SplittableRandom random) {
         if (moneyValues.length < 2) {
             throw new IllegalArgumentException("There must be at least 2 money values.");
         }
         cashValues = moneyValues;
-        Arrays.sort(cashValues);
+        seeds = random;
+        Arrays.parallelSort(cashValues);
+        cashCents = new long[cashValues.length];
+        for (int i = 0; i < cashValues.length; i++) {
+            cashTotal += cashValues[i];
+            cashCents[i] = Money.ofDollars(cashValues[i]);
+        }
+        briefcases = new int[cashValues.length];
+        remainingValues = new long[(cashValues.length + 63) / 64];
         newGame();
         initStages();
     }
 
     /**
-     * Resets/Initializes the variables for one game.
+     * Resets/Initializes the variables for one game with a new random shuffle.
      */
     public void newGame() {
-        briefcases = new ArrayList<>(Arrays.asList(cashValues));
-        Collections.shuffle(briefcases, new Random());
+        newGame(seeds.nextLong());
+    }
+
+    /**
+     * Resets/Initializes the variables for one game.
+     * A sample of the calls are timed for the game metrics.
+     * @param seed the seed of the shuffle, so the same seed always gives the same board.
+     */
+    public void newGame(long seed) {
+        boolean timed = (++calls & sampleMask) == 0;
+        long start = (timed) ? GameMetrics.start() : 0;
+        resetBoard(seed);
+        if (timed) {
+            GameMetrics.stop(GameMetrics.NEW_GAME, start);
+            flushMetrics();
+        }
+    }
+
+    /**
+     * Resets/Initializes the variables for one game.
+     * The board is reused, so no memory is allocated.
+     * @param seed the seed of the shuffle, so the same seed always gives the same board.
+     */
+    private void resetBoard(long seed) {
+        this.seed = seed;
+        if (log != null) {
+            recordDecision();
+            log.seed(seed);
+        }
+        if (events != null) events.seed(seed);
+
+        // Put every cash value onto the board and shuffle them (Fisher-Yates)
+        // with a SplitMix64 sequence kept in a local, so no generator is created or shared
+        long state = seed;
+        for (int i = 0; i < briefcases.length; i++) {
+            briefcases[i] = i;
+        }
+        for (int i = briefcases.length - 1; i > 0; i--) {
+            int bound = i + 1;
+            long product;
+            do {
+                state += GOLDEN_GAMMA;
+                product = (mix64(state) >>> 32) * bound;
+            } while ((product & 0xFFFFFFFFL) < (0x100000000L % bound));
+            int j = (int) (product >>> 32);
+            int cash = briefcases[i];
+            briefcases[i] = briefcases[j];
+            briefcases[j] = cash;
+        }
+
+        // Mark every cash value as remaining
+        Arrays.fill(remainingValues, -1L);
+        if (briefcases.length % 64 != 0) {
+            remainingValues[remainingValues.length - 1] = (1L << briefcases.length) - 1;
+        }
+        maxIndex = briefcases.length - 1;
+        minIndex = 0;
+        offerValid = false;
         chosen = -1;
         opened = -1;
+        nextStage = 0;
         done = false;
-        total = 0.0;
-        for (double cash : cashValues) {
-            total += cash;
-        }
-        cnt = briefcases.size();
+        total = cashTotal;
+        cnt = briefcases.length;
+        if (stateBits != null) startState();
     }
 
     /**
@@ -65,7 +192,7 @@ public class Briefcases {
      * @return the number of briefcases.
      */
     public int size() {
-        return briefcases.size();
+        return briefcases.length;
     }
 
     /**
@@ -74,7 +201,68 @@ public class Briefcases {
      * @return the cash in case <code>c</code> on the board.
      */
     public double cashIn(int c) {
-        return briefcases.get(c);
+        return cashValues[briefcases[c]];
+    }
+
+    /**
+     * Accesses the cash in a case on the board in cents.
+     * @param c is the index of the briefcase.
+     * @return the cash in case <code>c</code> on the board, in cents.
+     */
+    public long centsIn(int c) {
+        return cashCents[briefcases[c]];
+    }
+
+    /**
+     * Accesses the index in <code>cashValues</code> of the cash in a case on the board.
+     * @param c is the index of the briefcase.
+     * @return the index in <code>cashValues</code> of the cash in case <code>c</code>.
+     */
+    public int valueIndexIn(int c) {
+        return briefcases[c];
+    }
+
+    /**
+     * Checks if a case on the board has been opened.
+     * @param c is the index of the briefcase.
+     * @return true if case <code>c</code> has been opened.
+     */
+    public boolean isOpened(int c) {
+        int v = briefcases[c];
+        return (remainingValues[v >>> 6] & (1L << v)) == 0;
+    }
+
+    /**
+     * Marks a case on the board as opened and removes its cash from the totals.
+     * The largest remaining value only ever moves down (and the smallest only up),
+     * so finding the next one costs constant time when spread over a game.
+     * @param c is the index of the briefcase.
+     */
+    private void removeCase(int c) {
+        if (!isOpened(c)) {
+            int v = briefcases[c];
+            remainingValues[v >>> 6] &= ~(1L << v);
+            if (stateBits != null) stateBits = stateBits.clear(v);
+            total -= cashValues[v];
+            cnt--;
+            offerValid = false;
+            if (v == maxIndex) {
+                int word = v >>> 6;
+                long bits = remainingValues[word] & ((1L << v) - 1);
+                while (bits == 0 && word > 0) {
+                    bits = remainingValues[--word];
+                }
+                maxIndex = (bits == 0) ? -1 : word * 64 + 63 - Long.numberOfLeadingZeros(bits);
+            }
+            if (v == minIndex) {
+                int word = v >>> 6;
+                long bits = remainingValues[word] & (-2L << v);
+                while (bits == 0 && word < remainingValues.length - 1) {
+                    bits = remainingValues[++word];
+                }
+                minIndex = (bits == 0) ? briefcases.length : word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+        }
     }
 
     /**
@@ -83,19 +271,17 @@ public class Briefcases {
      */
     public String getInstruction() {
         if (done) {
-            return "The chosen briefcase had $" + formatter.format(briefcases.get(chosen)) + ".";
+            return "The chosen briefcase had $" + Money.format(centsIn(chosen)) + ".";
         } else if (opened == -1) {
             return "Choose a briefcase to keep to the end.";
-        } else if (opened <= (briefcases.size() + stages.length - 3)) {
+        } else if (opened <= (briefcases.length + stages.length - 3)) {
             if (dealOrNoDeal()) return "Deal or No Deal?";
             int n = calculateInstruction();
-            return (n > 1)? String.format("Take %d cases.", n) : "Take 1 case.";
-        } else if (opened == (briefcases.size() + stages.length) - 2) {
+            return (n > 1)? "Take " + n + " cases." : "Take 1 case.";
+        } else if (opened == (briefcases.length + stages.length) - 2) {
             return "Which case will you choose? Your case or the final case?";
-        } else if (opened == (briefcases.size() + stages.length - 1)) {
-            for (double cash : briefcases) {
-                if (cash != -1.0 && cash != earnings) return "The other briefcase had $" + formatter.format(cash) + ".";
-            }
+        } else if (opened == (briefcases.length + stages.length - 1)) {
+            if (otherCash != earnings) return "The other briefcase had $" + Money.format(otherCash) + ".";
         }
         return "";
     }
@@ -104,8 +290,8 @@ public class Briefcases {
      * Initialize the <code>stages</code> array.
      */
     public void initStages() {
-        int roundCases = (int) (-1 * ((1 - Math.sqrt(1 + 8 * (briefcases.size() - 2))) / 2));
-        int extra = briefcases.size() - 2 - (roundCases * (roundCases + 1) / 2);
+        int roundCases = (int) (-1 * ((1 - Math.sqrt(1 + 8 * (briefcases.length - 2))) / 2));
+        int extra = briefcases.length - 2 - (roundCases * (roundCases + 1) / 2);
         stages = new int[roundCases + extra];
         for (int i = 0, n = roundCases; i < stages.length; i++, n--) {
             if (i == 0) stages[i] = n;
@@ -123,15 +309,22 @@ public class Briefcases {
         return stages.length;
     }
 
+    /**
+     * Calculates the number of cases opened in the round before a stage's offer.
+     * @param stage the index of the stage in the <code>stages</code> array.
+     * @return the number of cases opened before the offer.
+     */
+    public int casesInRound(int stage) {
+        return (stage == 0) ? stages[0] : stages[stage] - stages[stage - 1] - 1;
+    }
+
     /**
      * Calculates the number of cases to be removed during a regular round.
      * @return the number of cases to be removed.
      */
     public int calculateInstruction() {
-        for (int i = 0; i < stages.length; i++) {
-            if (opened < stages[i]) return stages[i] - opened;
-        }
-        return -1;
+        int i = (nextStage < stages.length && stages[nextStage] == opened) ? nextStage + 1 : nextStage;
+        return (i < stages.length) ? stages[i] - opened : -1;
     }
 
     /**
@@ -140,14 +333,66 @@ public class Briefcases {
      */
     public void caseChosen(int c) {
         chosen = c;
-        opened++;
+        if (log != null) log.choose(c);
+        if (events != null) events.chosen(c);
+        nextStep();
+        publish();
     }
 
     /**
      * Increments the game stage.
      */
     public void caseOpened() {
+        if (log != null && dealOrNoDeal()) decisionPending = true;
+        nextStep();
+        publish();
+    }
+
+    /**
+     * Increments the game stage and moves past the stages that are over,
+     * so the current stage is found without searching <code>stages</code>.
+     */
+    private void nextStep() {
         opened++;
+        while (nextStage < stages.length && stages[nextStage] < opened) {
+            nextStage++;
+        }
+        if (log != null && dealOrNoDeal()) log.offer(getOffer());
+        if (events != null && dealOrNoDeal()) events.offer(nextStage, Money.ofDollars(getOffer()), Money.ofDollars(getMean()));
+    }
+
+    /**
+     * Opens a single case and increments the game stage.
+     * Used when the game is played without the GUI.
+     * @param c the index of the opened briefcase.
+     */
+    public void openCase(int c) {
+
+        // The GUI opens the final case after updateLastCase(), which already recorded it
+        if (log != null && !isDone(2)) {
+            recordDecision();
+            log.open(c);
+        }
+        if (events != null && !isDone(2)) events.opened(c, centsIn(c));
+        removeCase(c);
+        nextStep();
+        publish();
+    }
+
+    /**
+     * Accesses the remaining cash values.
+     * @return a bitset with a set bit for every index in <code>cashValues</code> that has not been opened.
+     */
+    public long[] getRemainingValues() {
+        return remainingValues.clone();
+    }
+
+    /**
+     * Accesses the mean of the cash in the unopened cases.
+     * @return the mean of the remaining cash.
+     */
+    public double getMean() {
+        return total / cnt;
     }
 
     /**
@@ -157,13 +402,10 @@ public class Briefcases {
     public void updateCases(int[] cases) {
         for (int i = 0; i < cases.length; i++) {
             if (cases[i] == 3) {
-                if (briefcases.get(i) != -1.0) {
-                    total -= briefcases.get(i);
-                    cnt--;
-                }
-                briefcases.set(i, -1.0);
+                removeCase(i);
             }
         }
+        publish();
     }
 
     /**
@@ -171,43 +413,106 @@ public class Briefcases {
      * @return true if a deal is to happen.
      */
     public boolean dealOrNoDeal(){
-        for (int i : stages) {
-            if (opened == i) {
-                return true;
-            }
-        }
-        return false;
+        return nextStage < stages.length && stages[nextStage] == opened;
     }
 
     /**
      * Generates the banker's offer.
+     * The offer is only calculated once for every board.
      * @return the offer.
      */
     public double getOffer() {
-
-        // Calculate the maximum value
-        double max = 0.0;
-        for (double cash : briefcases) {
-            if (cash > max) max = cash;
+        if (!offerValid) {
+            offer = ((++calls & sampleMask) != 0) ? calculateOffer() : timedOffer();
+            offerValid = true;
+            offersGenerated++;
         }
+        return offer;
+    }
+
+    /**
+     * Calculates the banker's offer from the remaining cash.
+     * @return the offer.
+     */
+    private double calculateOffer() {
+
+        // The offer belongs to the last stage reached, even once the player has answered it
+        int stage = (nextStage < stages.length && stages[nextStage] == opened) ? nextStage : Math.max(0, nextStage - 1);
+
+        // The maximum remaining value is kept up to date as cases are opened
+        return banker.offer(total, cnt, (maxIndex < 0) ? 0.0 : cashValues[maxIndex], stage);
+    }
+
+    /**
+     * Changes how often <code>newGame()</code> and the offer calculation are timed for the game metrics.
+     * @param rate a call is timed once every <code>rate</code> calls (a power of 2, 1 to time every call).
+     */
+    public void setSampleRate(int rate) {
+        sampleMask = Integer.highestOneBit(Math.max(1, rate)) - 1;
+    }
+
+    /**
+     * Adds the games, deals, and offers counted on this board to the game metrics.
+     * The counts are added together when a call is timed, so the shared counters are rarely touched.
+     */
+    public void flushMetrics() {
+        GameMetrics.count(gamesPlayed, dealsTaken, offersGenerated);
+        gamesPlayed = 0;
+        dealsTaken = 0;
+        offersGenerated = 0;
+    }
+
+    /**
+     * Calculates the banker's offer and times it for the game metrics.
+     * @return the offer.
+     */
+    private double timedOffer() {
+        long start = GameMetrics.start();
+        double value = calculateOffer();
+        GameMetrics.stop(GameMetrics.GET_OFFER, start);
+        flushMetrics();
+        return value;
+    }
 
-        // Samuel D. Bradley's Formula - https://commcognition.blogspot.com/2007/06/deal-or-no-deal-bankers-formula.html
-        double value = 12275.30 + (0.748 * (total / cnt)) - (2714.74 * cnt) - (0.040 * max) + (0.0000006986 * Math.pow((total/cnt), 2)) + (32.623 * Math.pow(cnt, 2));
+    /**
+     * Accesses the banker that makes the offers.
+     * @return the banker.
+     */
+    public Banker getBanker() {
+        return banker;
+    }
 
-        // Return an offer
-        if (value > 0 && !(value > max)) return value;
-        else return total / cnt;
+    /**
+     * Changes the banker that makes the offers.
+     * @param newBanker the banker.
+     */
+    public void setBanker(Banker newBanker) {
+        banker = newBanker;
+        offerValid = false;
+        publish();
     }
 
     /**
      * Handles a deal being taken.
      */
     public void tookDeal() {
-        earnings = getOffer();
-        possible = Math.max(getOffer(), briefcases.get(chosen));
+        if (log != null) {
+            decisionPending = false;
+            log.deal();
+        }
+        earnings = Money.ofDollars(getOffer());
+        possible = Math.max(earnings, centsIn(chosen));
+        gamesPlayed++;
+        dealsTaken++;
+        if (sampleMask == 0) flushMetrics();
         totalEarnings += earnings;
         totalPossible += possible;
         done = true;
+        if (events != null) {
+            events.deal(earnings);
+            events.gameOver(-1, earnings, possible);
+        }
+        publish();
     }
 
     /**
@@ -216,7 +521,7 @@ public class Briefcases {
      * @return true if the game is <code>option</code> steps from ending.
      */
     public boolean isDone(int option) {
-        return opened == (briefcases.size() + stages.length) - option;
+        return opened == (briefcases.length + stages.length) - option;
     }
 
     /**
@@ -224,28 +529,143 @@ public class Briefcases {
      * @param c index of the last case.
      */
     public void updateLastCase(int c) {
-        earnings = briefcases.get(c);
-        for (double cash : briefcases) {
-            if (cash != -1.0 && cash != earnings) possible = Math.max(earnings, cash);
+        if (log != null) {
+            recordDecision();
+            log.finalCase(c);
         }
+        earnings = centsIn(c);
+        possible = Math.max(earnings, cashCents[maxIndex]);
+
+        // The last two cases hold the smallest and the largest remaining values
+        otherCash = cashCents[(briefcases[c] == maxIndex) ? minIndex : maxIndex];
+        gamesPlayed++;
+        if (sampleMask == 0) flushMetrics();
         totalEarnings += earnings;
         totalPossible += possible;
+        if (events != null) events.gameOver(c, earnings, possible);
+        publish();
     }
 
     /**
      * Accesses the statistics.
-     * @return an array with the four statistics.
+     * @return an array with the four statistics, in dollars.
      */
     public double[] getStatistics() {
-        return new double[] {earnings, possible, totalEarnings, totalPossible};
+        return new double[] {Money.toDollars(earnings), Money.toDollars(possible), Money.toDollars(totalEarnings), Money.toDollars(totalPossible)};
+    }
+
+    /**
+     * Accesses the statistics exactly.
+     * @return an array with the four statistics, in cents.
+     */
+    public long[] getStatisticsCents() {
+        return new long[] {earnings, possible, totalEarnings, totalPossible};
     }
 
     /**
      * Update total statistics with values from previous sessions.
-     * @param stats an array with the total earnings and possible earnings from previous sessions
+     * @param stats an array with the total earnings and possible earnings from previous sessions, in dollars.
      */
     public void updateStatistics(double[] stats) {
+        totalEarnings += Money.ofDollars(stats[0]);
+        totalPossible += Money.ofDollars(stats[1]);
+    }
+
+    /**
+     * Update total statistics with exact values from previous sessions.
+     * @param stats an array with the total earnings and possible earnings from previous sessions, in cents.
+     */
+    public void updateStatisticsCents(long[] stats) {
         totalEarnings += stats[0];
         totalPossible += stats[1];
     }
+
+    /**
+     * Accesses the seed of the current game.
+     * @return the seed that <code>newGame(long)</code> shuffled the board with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Accesses the latest version of the board, which never changes, so it can be read on any thread
+     * without locks while the game goes on. Each move makes a new version that shares the parts of the
+     * board that did not change with the one before it. Boards only keep versions once the first
+     * snapshot is taken, which must be on the thread that plays the game, so simulations pay nothing.
+     * @return the latest version of the board.
+     */
+    public GameState snapshot() {
+        if (stateBits == null) {
+            startState();
+            publish();
+        }
+        return state;
+    }
+
+    /**
+     * Starts the versions of a new game.
+     */
+    private void startState() {
+        stateBits = new GameState.Bits(remainingValues);
+        state = new GameState((state == null) ? 0 : state.getVersion() + 1, seed, cashValues, briefcases.clone(), stages, stateBits);
+    }
+
+    /**
+     * Makes the version of the board after a move, if versions are kept.
+     */
+    private void publish() {
+        if (stateBits != null) {
+            double currentOffer = (dealOrNoDeal()) ? getOffer() : Double.NaN;
+
+            // The earnings are kept until the next game ends, so they only belong to a game that is over
+            boolean over = done || isDone(1);
+            state = new GameState(state, stateBits, cnt, total, maxIndex, chosen, opened, nextStage, currentOffer,
+                    (over) ? earnings : 0, (over) ? possible : 0, done);
+        }
+    }
+
+    /**
+     * Mixes the bits of a SplitMix64 state into a random number.
+     * @param z the state.
+     * @return the random number.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Records the events of every following game to a log,
+     * including the current game if no case has been chosen yet.
+     * @param gameLog the log, or null to stop recording.
+     */
+    public void setLog(GameLog gameLog) {
+        log = gameLog;
+        decisionPending = false;
+        if (log != null && opened < 0) {
+            log.seed(seed);
+        }
+    }
+
+    /**
+     * Sends the events of this and every following game to a publisher. The publisher is only used
+     * on the thread that plays the game, so each board needs its own.
+     * @param gameEvents the publisher, or null to stop sending events.
+     */
+    public void setEvents(GameEvents gameEvents) {
+        events = gameEvents;
+        if (events != null) events.seed(seed);
+    }
+
+    /**
+     * Records an answered offer as turned down, once the next move shows it was not taken.
+     */
+    private void recordDecision() {
+        if (decisionPending) {
+            decisionPending = false;
+            log.noDeal();
+        }
+    }
 }
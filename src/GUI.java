@@ -1,9 +1,8 @@
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.*;
-import java.net.URL;
-import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class GUI extends JFrame implements ActionListener {
 
@@ -55,20 +54,50 @@ public class GUI extends JFrame implements ActionListener {
     private static final int BUTTON_LEFT = LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - 100) / 2;
     /** Distance between the tops of buttons. */
     private static final int BUTTON_HEIGHT_INC = 50;
+    /** Largest number of rows of cases shown without scrolling (7 cases per row). */
+    private static final int MAX_ROWS = 6;
+    /** Number of rows of cases visible at a time on a large board. */
+    private static final int LARGE_BOARD_ROWS = 4;
+    /** Number of previous offers shown on a large board. */
+    private static final int LARGE_BOARD_OFFERS = 9;
+    /** Image of a money value plate. */
+    private static final String PLATE_IMAGE = "Img/MoneyValuesPlate.png";
+    /** Image of a money value plate that has been taken. */
+    private static final String PLATE_TAKEN_IMAGE = "Img/MoneyValuesPlateTaken.png";
+    /** Image of a closed briefcase. */
+    private static final String CLOSED_IMAGE = "Img/ClosedBriefcase.png";
+    /** Image of an open briefcase. */
+    private static final String OPEN_IMAGE = "Img/OpenBriefcase.png";
+    /** Image of the chosen briefcase. */
+    private static final String CHOSEN_IMAGE = "Img/ChosenBriefcase.png";
+    /** Every image the board uses, so they can be decoded before the board is built. */
+    public static final String[] IMAGES = {CLOSED_IMAGE, OPEN_IMAGE, CHOSEN_IMAGE, PLATE_IMAGE, PLATE_TAKEN_IMAGE};
 
     /** The game (Briefcases subclass). */
     private Briefcases game;
+    /** Journal that every finished game is added to, or null if there is none. */
+    private final StatsJournal journal;
+    /** Publisher of the game's events, which the journal is fed from, or null if there is no journal. */
+    private GameEvents events;
+    /** Completes once every finished game has been added to the journal after the events are closed. */
+    private CompletableFuture<Void> journalFed;
 
     /** The main panel containing the game components. */
     private JPanel panel;
-    /** The briefcase displays. */
-    private JLabel[] displayCases;
-    /** The coordinates of the briefcase displays. */
-    private Point[] caseCoords;
-    /** The money value displays. */
-    private JLabel[] displayValues;
-    /** The coordinates of the money value displays. */
-    private Point[] valueCoords;
+    /** Flag that tracks if the board and the messages have been built, which happens once the empty frame is first painted. */
+    private boolean boardBuilt;
+    /** Flag that tracks if the board is too large to show every case at once, so it is drawn by scrollable views. */
+    private boolean largeBoard;
+    /** Number of stages more than the 9 of a 26 case board that the labels make room for. */
+    private int extraStages;
+    /** The view that draws every briefcase. */
+    private BoardView caseView;
+    /** The views that draw the left and right money value plates. */
+    private BoardView[] plateViews;
+    /** ith element is the index in <code>cashValues</code> of the value on plate #i. */
+    private int[] plateValues;
+    /** ith element is true if case #i has been taken and removed from the board. */
+    private boolean[] caseHidden;
     /** The instruction messages. */
     private JLabel instructionsMsg;
     /** The banker's offer. */
@@ -88,42 +117,108 @@ public class GUI extends JFrame implements ActionListener {
     /** The Close button. */
     private JButton closeButton;
 
-    /** ith element is 0, 1, 2, or 3 if case #i is closed, open, chosen, or taken. */
+    /** ith element is 0, 1, 2, or 3 if case #i is closed, opened this round, chosen, or taken. */
     private int[] selections;
     /** ith element is true if the case with value #i has been opened */
     private boolean[] valueTaken;
+    /** Index of the case the user kept. */
+    private int chosenCase = -1;
+    /** Stack of briefcases that changed since the last frame. */
+    private int[] dirtyCases;
+    /** Number of briefcases in <code>dirtyCases</code>. */
+    private int dirtyCaseCount = 0;
+    /** ith element is true if case #i is in <code>dirtyCases</code>. */
+    private boolean[] caseQueued;
+    /** Stack of money value plates that changed since the last frame. */
+    private int[] dirtyPlates;
+    /** Number of plates in <code>dirtyPlates</code>. */
+    private int dirtyPlateCount = 0;
+    /** ith element is true if plate #i is in <code>dirtyPlates</code>. */
+    private boolean[] plateQueued;
+    /** Briefcases opened since the last offer, to be hidden after it. */
+    private int[] openedSinceOffer;
+    /** Number of briefcases in <code>openedSinceOffer</code>. */
+    private int openedSinceOfferCount = 0;
+    /** Text of the instruction label in the last frame. */
+    private String lastInstruction = "";
+    /** Text of the banker's offer label in the last frame. */
+    private String lastOffer = "";
     /** Flag that tracks if the user has kept the first case. */
     private boolean keepFlag = true;
     /** Flag that tracks if the game has ended. */
     private boolean gameOver = false;
     /** ArrayList to track previous offers. */
     private ArrayList<Double> offers;
-    /** DecimalFormat to format cash values in the briefcases. */
-    private final DecimalFormat briefcaseFormatter = new DecimalFormat("#,###.##");
-    /** DecimalFormat to format cash values. */
-    private final DecimalFormat formatter = new DecimalFormat("#,##0.00");
+    /** ith element is the formatted text of cash value #i, computed once for the board. */
+    private String[] cashLabels;
+    /** ith element is the text of the closed briefcase #i. */
+    private String[] caseLabels;
+    /** Solver for the optimal play advice, or null if the board is too big to solve. */
+    private CompletableFuture<Solver> solver;
+    /** Counts the advice requests, so advice for an old offer is not shown. */
+    private int adviceRequest = 0;
+    /** Background task working out the distribution of the next offer, or null if none is running. */
+    private SwingWorker<Void, double[]> preview;
+    /** Counts the preview requests, so a preview for an old board is not shown. */
+    private int previewRequest = 0;
+    /** Flag that tracks if the board changed since the preview was started. */
+    private boolean previewStale = true;
 
     /**
      * Initialize the GUI.
      * @param gameCases is a <code>Briefcases</code> subclass.
      */
     public GUI(Briefcases gameCases) {
+        this(gameCases, null);
+    }
+
+    /**
+     * Initialize the GUI.
+     * @param gameCases is a <code>Briefcases</code> subclass.
+     * @param statsJournal the journal that every finished game is added to, or null.
+     */
+    public GUI(Briefcases gameCases, StatsJournal statsJournal) {
         game = gameCases;
+        journal = statsJournal;
         selections = new int[game.size()];
         valueTaken = new boolean[game.size()];
+        dirtyCases = new int[game.size()];
+        caseQueued = new boolean[game.size()];
+        dirtyPlates = new int[game.size()];
+        plateQueued = new boolean[game.size()];
+        openedSinceOffer = new int[game.size()];
+        caseHidden = new boolean[game.size()];
         offers = new ArrayList<>();
+        if (Solver.canSolve(game)) {
+
+            // The solver's memo table is large, so it is made in the background while the frame is shown
+            solver = CompletableFuture.supplyAsync(() -> new Solver(game));
+        }
+        game.setSampleRate(1);
+        if (journal != null) {
+
+            // Finished games are added to the journal from the game's events, off the event dispatch thread
+            final int cases = game.size();
+            events = new GameEvents();
+            journalFed = events.consume(event -> {
+                if (event.getType() == GameEvent.GAME_OVER) {
+                    journal.append(event.getCents(), event.getOtherCents(), cases, event.getIndex() < 0);
+                }
+            });
+            game.setEvents(events);
+        }
         setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
         addWindowListener(new WindowAdapter() {
             public void windowClosing(WindowEvent e) {
-                for (int i = 2; i <= 3; i++) {
-                    System.out.println(game.getStatistics()[i]);
+                if (journal != null) {
+                    events.close();
+                    journalFed.join();
+                    journal.close();
                 }
-                System.out.println("\0");
                 System.exit(0);
             }
         });
-        initDisplay();
-        repaint();
+        initFrame();
     }
 
     /**
@@ -138,90 +233,63 @@ public class GUI extends JFrame implements ActionListener {
     }
 
     /**
-     * Draw the display.
+     * Draw the display, timing it for the game metrics.
      */
     public void repaint() {
-        if (game.isDone(2)) {
-            for (int i = 0; i < game.size(); i++) {
-                if (selections[i] == 2) {
-                    selections[i] = 0;
-                    break;
-                }
-            }
-        }
+        if (!boardBuilt) return;
+        long start = GameMetrics.start();
+        drawFrame();
+        GameMetrics.stop(GameMetrics.REPAINT, start);
+    }
 
-        for (int i = 0; i < game.size(); i++) {
-            String caseImageFileName = imageFileName(selections[i]);
-            URL imageURL = getClass().getResource(caseImageFileName);
-            if (imageURL != null) {
-                ImageIcon icon = new ImageIcon(imageURL);
-                displayCases[i].setIcon(icon);
-                if (selections[i] == 0) {
-                    displayCases[i].setText(String.format("Case %d", i + 1));
-                    displayCases[i].setForeground(Color.BLACK);
-                    displayCases[i].setVisible(true);
-                    displayCases[i].setFont(new Font("Dialog", Font.BOLD, 12));
-                } else if (selections[i] == 1) {
-                    if (game.cashIn(i) == Math.floor(game.cashIn(i))) {
-                        displayCases[i].setText(String.format("$%s", briefcaseFormatter.format(game.cashIn(i))));
-                    } else {
-                        displayCases[i].setText(String.format("$%s", formatter.format(game.cashIn(i))));
-                    }
-                    displayCases[i].setForeground(Color.WHITE);
-                    displayCases[i].setFont(new Font("Dialog", Font.PLAIN, 10));
-                    game.caseOpened();
-                    selections[i] = 3;
-                } else if (selections[i] == 2) {
-                    displayCases[i].setText("Chosen");
-                    displayCases[i].setForeground(Color.BLACK);
-                } else if (selections[i] == 3 && game.cashIn(i) == -1.0) {
-                    displayCases[i].setVisible(false);
-                }
-                displayCases[i].setHorizontalTextPosition(JLabel.CENTER);
-                displayCases[i].setVerticalTextPosition(JLabel.CENTER);
-            } else {
-                throw new RuntimeException("Could not find file: \"" + caseImageFileName + "\"");
-            }
+    /**
+     * Draw the display.
+     * Only the briefcases, plates, and labels that changed since the last frame are updated,
+     * and the components repaint themselves, so nothing is laid out again.
+     */
+    private void drawFrame() {
+
+        // Put the chosen case back in play for the final decision
+        if (game.isDone(2) && chosenCase >= 0 && selections[chosenCase] == 2) {
+            selections[chosenCase] = 0;
+            markCase(chosenCase);
         }
 
-        for (int i = 0; i < game.size(); i++) {
-            String valueImageFileName = (valueTaken[i])? "Img/MoneyValuesPlateTaken.png" : "Img/MoneyValuesPlate.png";
-            URL imageURL = getClass().getResource(valueImageFileName);
-            if (imageURL != null) {
-                ImageIcon icon = new ImageIcon(imageURL);
-                displayValues[i].setIcon(icon);
-                if (game.size() % 2 == 0) {
-                    if (game.cashValues[i] == Math.floor(game.cashValues[i])) {
-                        displayValues[(i * 2 + (i / (game.size() / 2))) % game.size()].setText("$" + briefcaseFormatter.format(game.cashValues[i]));
-                    } else {
-                        displayValues[(i * 2 + (i / (game.size() / 2))) % game.size()].setText("$" + formatter.format(game.cashValues[i]));
-                    }
-                } else {
-                    if (game.cashValues[i] == Math.floor(game.cashValues[i])) {
-                        displayValues[((i * 2 + i / (game.size() / 2 + 1)) % game.size()) - (i / (game.size() / 2 + 1))].setText("$" + briefcaseFormatter.format(game.cashValues[i]));
-                    } else {
-                        displayValues[((i * 2 + i / (game.size() / 2 + 1)) % game.size()) - (i / (game.size() / 2 + 1))].setText("$" + formatter.format(game.cashValues[i]));
-                    }
-                }
-                displayValues[i].setHorizontalTextPosition(JLabel.CENTER);
-                displayValues[i].setVerticalTextPosition(JLabel.CENTER);
-            } else {
-                throw new RuntimeException("Could not find file: \"" + valueImageFileName + "\"");
-            }
+        while (dirtyCaseCount > 0) {
+            int i = dirtyCases[--dirtyCaseCount];
+            caseQueued[i] = false;
+            updateCase(i);
         }
 
-        instructionsMsg.setText(game.getInstruction());
-        instructionsMsg.setBounds((int) ((LABEL_LEFT - VALUES_WIDTH + 30) - instructionsMsg.getPreferredSize().getWidth()) / 2 + VALUES_WIDTH, INSTRUCTION_LABEL_TOP, 450, 30);
+        // The even plates are on the left and the odd plates on the right
+        while (dirtyPlateCount > 0) {
+            int i = dirtyPlates[--dirtyPlateCount];
+            plateQueued[i] = false;
+            plateViews[i % 2].repaintCell(i / 2);
+        }
 
-        offerMsg.setText("Banker's Offer: No Offer");
-        offerMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - offerMsg.getPreferredSize().getWidth()) / 2), LABEL_TOP, 250, 30);
+        String instruction = game.getInstruction();
+        if (!instruction.equals(lastInstruction)) {
+            lastInstruction = instruction;
+            instructionsMsg.setText(instruction);
+            instructionsMsg.setBounds((int) ((LABEL_LEFT - VALUES_WIDTH + 30) - instructionsMsg.getPreferredSize().getWidth()) / 2 + VALUES_WIDTH, INSTRUCTION_LABEL_TOP, 450, 30);
+        }
 
+        String offer = "Banker's Offer: No Offer";
         if (game.dealOrNoDeal()) {
             dealButton.setEnabled(true);
             noDealButton.setEnabled(true);
-            game.updateCases(selections);
-            offerMsg.setText(String.format("Banker's Offer: $%s", formatter.format(game.getOffer())));
-            offerMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - offerMsg.getPreferredSize().getWidth()) / 2), LABEL_TOP, 250, 30);
+            offer = "Banker's Offer: $" + Money.format(Money.ofDollars(game.getOffer()));
+
+            // The cases opened this round are hidden in the next frame
+            while (openedSinceOfferCount > 0) {
+                int i = openedSinceOffer[--openedSinceOfferCount];
+                selections[i] = 3;
+                markCase(i);
+            }
+            if (solver != null) {
+                showAdvice();
+            }
         } else {
             dealButton.setEnabled(false);
             noDealButton.setEnabled(false);
@@ -230,27 +298,172 @@ public class GUI extends JFrame implements ActionListener {
         if (game.isDone(1) || gameOver) {
             restartButton.setEnabled(true);
             closeButton.setEnabled(true);
-            double[] stats = game.getStatistics();
-            currentStatisticsMsg.setText(String.format("<html>Current Statistics:<br>Earnings: $%s<br>Possible Earnings: $%s</html>", formatter.format(stats[0]), formatter.format(stats[1])));
-            statisticsMsg.setText(String.format("<html>Total Statistics:<br>Earnings: $%s<br>Possible Earnings: $%s</html>", formatter.format(stats[2]), formatter.format(stats[3])));
+            long[] stats = game.getStatisticsCents();
+            currentStatisticsMsg.setText(String.format("<html>Current Statistics:<br>Earnings: $%s<br>Possible Earnings: $%s</html>", Money.format(stats[0]), Money.format(stats[1])));
+            statisticsMsg.setText(String.format("<html>Total Statistics:<br>Earnings: $%s<br>Possible Earnings: $%s</html>", Money.format(stats[2]), Money.format(stats[3])));
         } else {
             restartButton.setEnabled(false);
             closeButton.setEnabled(false);
         }
 
-        pack();
-        panel.repaint();
+        if (!offer.equals(lastOffer)) {
+            lastOffer = offer;
+            offerMsg.setText(offer);
+            offerMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - offerMsg.getPreferredSize().getWidth()) / 2), LABEL_TOP, 250, 30);
+        }
+
+        // Start over on the next offer's preview once the cases of this frame are opened
+        if (previewStale) {
+            previewStale = false;
+            showPreview();
+        }
+    }
+
+    /**
+     * Updates the display of one briefcase. The game is never changed while drawing,
+     * since the cases are opened when they are clicked.
+     * @param i the index of the briefcase.
+     */
+    private void updateCase(int i) {
+
+        // Remove a case that was opened before the last offer
+        caseHidden[i] = selections[i] == 3;
+        caseView.repaintCell(i);
+    }
+
+    /**
+     * Marks a briefcase to be updated in the next frame.
+     * @param i the index of the briefcase.
+     */
+    private void markCase(int i) {
+        if (!caseQueued[i]) {
+            caseQueued[i] = true;
+            dirtyCases[dirtyCaseCount++] = i;
+        }
+    }
+
+    /**
+     * Marks a money value plate to be updated in the next frame.
+     * @param i the index of the plate.
+     */
+    private void markPlate(int i) {
+        if (!plateQueued[i]) {
+            plateQueued[i] = true;
+            dirtyPlates[dirtyPlateCount++] = i;
+        }
+    }
+
+    /**
+     * Marks every briefcase and plate to be updated in the next frame.
+     */
+    private void markAll() {
+        for (int i = 0; i < game.size(); i++) {
+            markCase(i);
+            markPlate(i);
+        }
+    }
+
+    /**
+     * Works out the optimal play for the current offer in the background
+     * and adds it to the instructions when it is ready.
+     */
+    private void showAdvice() {
+        final int request = ++adviceRequest;
+        final GameState state = game.snapshot();
+        new SwingWorker<Double, Void>() {
+            protected Double doInBackground() {
+                return solver.join().noDealValue(state.getRemainingValues()[0]);
+            }
+
+            protected void done() {
+
+                // Only show the advice if the offer is still on the table
+                if (request != adviceRequest || !game.dealOrNoDeal() || gameOver) return;
+                try {
+                    double noDeal = get();
+                    String advice = (game.getOffer() >= noDeal) ? "Deal" : "No Deal";
+                    showExtendedInstruction(String.format("%s Optimal play: %s ($%s expected)", game.getInstruction(), advice, Money.format(Money.ofDollars(noDeal))));
+                } catch (Exception e) {
+
+                    // Leave the instructions without advice
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Works out the distribution of the next offer in the background while the player opens
+     * the round's cases, and adds it to the instructions as it converges.
+     * A preview that is still running is cancelled, since the board it was started on is gone.
+     */
+    private void showPreview() {
+        if (preview != null) {
+            preview.cancel(true);
+            preview = null;
+        }
+        final int request = ++previewRequest;
+        final GameState state = game.snapshot();
+        if (gameOver || state.getChosen() < 0 || state.dealOrNoDeal() || state.isDone(2) || state.calculateInstruction() <= 0) return;
+
+        // The background thread only reads the version of the board it was given, never the game
+        final Banker banker = game.getBanker();
+        final double lastOffer = (offers.isEmpty()) ? Double.NaN : offers.get(offers.size() - 1);
+        final String instruction = game.getInstruction();
+        preview = new SwingWorker<Void, double[]>() {
+
+            /** The distribution of the next offer, made on the background thread. */
+            private OfferPreview distribution;
+
+            protected Void doInBackground() {
+                distribution = new OfferPreview(state, banker, lastOffer);
+                boolean more;
+                do {
+                    more = distribution.step();
+                    publish(distribution.getDistribution());
+                } while (more && !isCancelled());
+                return null;
+            }
+
+            protected void process(java.util.List<double[]> chunks) {
+
+                // Only show the newest part of the preview, and only for the board it was started on
+                if (request != previewRequest) return;
+                double[] next = chunks.get(chunks.size() - 1);
+                String samples = (distribution.isExact()) ? "" : String.format(" (%,d samples)", (long) next[4]);
+                showExtendedInstruction(String.format("%s Next offer: $%s to $%s, median $%s, %.0f%% chance it goes up%s", instruction,
+                        Money.format(Money.ofDollars(next[0])), Money.format(Money.ofDollars(next[2])), Money.format(Money.ofDollars(next[1])), 100.0 * next[3], samples));
+            }
+        };
+        preview.execute();
+    }
+
+    /**
+     * Shows instructions with extra information, widening the label to fit them.
+     * @param text the instructions.
+     */
+    private void showExtendedInstruction(String text) {
+        instructionsMsg.setText(text);
+        instructionsMsg.setBounds((int) ((LABEL_LEFT - VALUES_WIDTH + 30) - instructionsMsg.getPreferredSize().getWidth()) / 2 + VALUES_WIDTH, INSTRUCTION_LABEL_TOP, Math.max(450, (int) instructionsMsg.getPreferredSize().getWidth()), 30);
     }
 
     /**
-     * Initialize the display.
+     * Initialize the frame at its full size with an empty panel, so it can be shown before the board is built.
+     * The board is built once the empty frame has been painted.
      */
-    private void initDisplay()	{
+    private void initFrame() {
 
-        // Initialize JPanel
+        // Initialize JPanel, building the board after its first paint, in a later event so the empty frame shows first
         panel = new JPanel() {
+            /** Flag that tracks if the board has been scheduled to be built. */
+            private boolean boardScheduled;
+
             public void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                GameMetrics.firstFrame();
+                if (!boardScheduled) {
+                    boardScheduled = true;
+                    EventQueue.invokeLater(GUI.this::initBoard);
+                }
             }
         };
 
@@ -259,8 +472,10 @@ public class GUI extends JFrame implements ActionListener {
 
         // Calculate number of rows of cases (7 cases per row) and adjust JFrame height if necessary
         int numRows = (game.size() + 6) / 7;
+        largeBoard = numRows > MAX_ROWS;
+        extraStages = (largeBoard) ? 0 : game.numStages() - 9;
         int height = DEFAULT_HEIGHT;
-        if (numRows > 4) {
+        if (numRows > 4 && !largeBoard) {
             height += (numRows - 4) * LAYOUT_HEIGHT_INC;
         }
 
@@ -269,53 +484,31 @@ public class GUI extends JFrame implements ActionListener {
         panel.setLayout(null);
         panel.setPreferredSize(new Dimension(DEFAULT_WIDTH - 20, height - 20));
 
-        // Initialize caseCoords using 7 cases per row
-        caseCoords = new Point[game.size()];
-        int x = LAYOUT_LEFT;
-        int y = LAYOUT_TOP;
-        for (int i = 0; i < caseCoords.length; i++) {
-            caseCoords[i] = new Point(x, y);
-            if (i % 7 == 6) {
-                x = LAYOUT_LEFT;
-                y += LAYOUT_HEIGHT_INC;
-            } else {
-                x += LAYOUT_WIDTH_INC;
-            }
-        }
-
-        // Initialize displayCases and selections
-        displayCases = new JLabel[game.size()];
-        for (int i = 0; i < game.size(); i++) {
-            displayCases[i] = new JLabel();
-            panel.add(displayCases[i]);
-            displayCases[i].setBounds(caseCoords[i].x, caseCoords[i].y, CASE_WIDTH, CASE_HEIGHT);
-            displayCases[i].addMouseListener(new MyMouseListener());
-            selections[i] = 0;
-        }
+        // Add the empty JPanel to the JFrame
+        getContentPane().add(panel);
+        pack();
+    }
 
-        // Initialize valueCoords using 2 values per row
-        valueCoords = new Point[game.size()];
-        x = VALUES_LEFT;
-        y = VALUES_TOP;
-        for (int i = 0; i < valueCoords.length; i++) {
-            valueCoords[i] = new Point(x, y);
-            if (i % 2 == 1) {
-                x = VALUES_LEFT;
-                y += VALUES_HEIGHT_INC;
-            } else {
-                x += VALUES_WIDTH_INC;
-            }
-        }
+    /**
+     * Initialize the board, the buttons, and the messages in the shown frame, then draw the first frame of the game.
+     */
+    private void initBoard() {
 
-        // Initialize displayValues and valueTaken
-        displayValues = new JLabel[game.size()];
+        // Format the cash values and the case names once for the board
+        cashLabels = new String[game.size()];
+        caseLabels = new String[game.size()];
+        plateValues = new int[game.size()];
         for (int i = 0; i < game.size(); i++) {
-            displayValues[i] = new JLabel();
-            panel.add(displayValues[i]);
-            displayValues[i].setBounds(valueCoords[i].x, valueCoords[i].y, VALUES_WIDTH, VALUES_HEIGHT);
-            valueTaken[i] = false;
+            // Whole dollars are shown without the cents
+            long cents = Money.ofDollars(game.cashValues[i]);
+            String cash = Money.format(cents);
+            cashLabels[i] = "$" + ((cents % Money.CENTS == 0) ? cash.substring(0, cash.length() - 3) : cash);
+            caseLabels[i] = "Case " + (i + 1);
+            plateValues[plateIndex(i)] = i;
         }
 
+        initBoardViews();
+
         // Initialize the dealButton JButton
         dealButton = new JButton();
         dealButton.setText("Deal");
@@ -334,14 +527,14 @@ public class GUI extends JFrame implements ActionListener {
         restartButton = new JButton();
         restartButton.setText("Restart");
         panel.add(restartButton);
-        restartButton.setBounds(BUTTON_LEFT, BUTTON_TOP + BUTTON_HEIGHT_INC + 2 * LABEL_HEIGHT_INC + 150 + 12 * (game.numStages() - 9), 100, 30);
+        restartButton.setBounds(BUTTON_LEFT, BUTTON_TOP + BUTTON_HEIGHT_INC + 2 * LABEL_HEIGHT_INC + 150 + 12 * extraStages, 100, 30);
         restartButton.addActionListener(this);
 
         // Initialize the closeButton JButton
         closeButton = new JButton();
         closeButton.setText("Close");
         panel.add(closeButton);
-        closeButton.setBounds(BUTTON_LEFT, BUTTON_TOP + 2 * BUTTON_HEIGHT_INC + 2 * LABEL_HEIGHT_INC + 150 + 12 * (game.numStages() - 9), 100, 30);
+        closeButton.setBounds(BUTTON_LEFT, BUTTON_TOP + 2 * BUTTON_HEIGHT_INC + 2 * LABEL_HEIGHT_INC + 150 + 12 * extraStages, 100, 30);
         closeButton.addActionListener(this);
 
         // Initialize the instructionsMsg JLabel
@@ -357,11 +550,15 @@ public class GUI extends JFrame implements ActionListener {
         // Initialize the previousOffersMsg JLabel
         previousOffersMsg = new JLabel("<html>Previous Offers:</html>");
         panel.add(previousOffersMsg);
-        previousOffersMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - previousOffersMsg.getPreferredSize().getWidth()) / 2), BUTTON_TOP + BUTTON_HEIGHT_INC + LABEL_HEIGHT_INC, 100, 180 + 12 * (game.numStages() - 9));
+        previousOffersMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - previousOffersMsg.getPreferredSize().getWidth()) / 2), BUTTON_TOP + BUTTON_HEIGHT_INC + LABEL_HEIGHT_INC, 100, 180 + 12 * extraStages);
         previousOffersMsg.setVisible(true);
 
         // Initialize the STATISTICS_LABELS_TOP variable for the statistics JLabels
-        STATISTICS_LABELS_TOP = Math.max(((game.size() + 6) / 7) * 100 + 2 * LABEL_HEIGHT_INC, (int) Math.ceil(game.size() / 2) * VALUES_HEIGHT_INC + VALUES_TOP);
+        if (largeBoard) {
+            STATISTICS_LABELS_TOP = LAYOUT_TOP + LARGE_BOARD_ROWS * LAYOUT_HEIGHT_INC + 10;
+        } else {
+            STATISTICS_LABELS_TOP = Math.max(((game.size() + 6) / 7) * 100 + 2 * LABEL_HEIGHT_INC, (int) Math.ceil(game.size() / 2) * VALUES_HEIGHT_INC + VALUES_TOP);
+        }
 
         // Initialize the currentStatisticsMsg JLabel
         currentStatisticsMsg = new JLabel("<html>Current Statistics:<br>Earnings:<br>Possible Earnings:</html>");
@@ -371,18 +568,104 @@ public class GUI extends JFrame implements ActionListener {
 
         // Initialize the statisticsMsg JLabel
         statisticsMsg = new JLabel("<html>Total Statistics:<br>Earnings:<br>Possible Earnings:</html>");
-        double[] stats = game.getStatistics();
+        long[] stats = game.getStatisticsCents();
         if (stats[2] > 0 && stats[3] > 0) {
-            statisticsMsg.setText(String.format("<html>Total Statistics:<br>Earnings: $%s<br>Possible Earnings: $%s</html>", formatter.format(stats[2]), formatter.format(stats[3])));
+            statisticsMsg.setText(String.format("<html>Total Statistics:<br>Earnings: $%s<br>Possible Earnings: $%s</html>", Money.format(stats[2]), Money.format(stats[3])));
         }
         panel.add(statisticsMsg);
         statisticsMsg.setBounds((int) (((LABEL_LEFT - VALUES_WIDTH) / 2.0 - statisticsMsg.getPreferredSize().getWidth()) / 2 + (LABEL_LEFT - VALUES_WIDTH) / 2.0 + VALUES_WIDTH), STATISTICS_LABELS_TOP, 300, 60);
         statisticsMsg.setVisible(true);
 
-        // Add the JPanel with all the components to the JFrame
-        pack();
-        getContentPane().add(panel);
-        panel.setVisible(true);
+        // Show the new components and draw the game
+        boardBuilt = true;
+        panel.revalidate();
+        panel.repaint();
+        markAll();
+        repaint();
+    }
+
+    /**
+     * Initialize the views that draw the cases and plates, so the number of components does not
+     * depend on the board size. A large board's views scroll and only draw the visible cells.
+     */
+    private void initBoardViews() {
+
+        // Initialize the view of the cases, showing LARGE_BOARD_ROWS rows at a time on a large board
+        caseView = new BoardView(new BoardView.Cells() {
+            public int count() {
+                return game.size();
+            }
+
+            public String image(int i) {
+                return (caseHidden[i]) ? null : imageFileName(selections[i]);
+            }
+
+            public String text(int i) {
+                if (selections[i] == 0) return caseLabels[i];
+                if (selections[i] == 2) return "Chosen";
+                return cashLabels[game.valueIndexIn(i)];
+            }
+
+            public Color color(int i) {
+                return (selections[i] == 1 || selections[i] == 3) ? Color.WHITE : Color.BLACK;
+            }
+
+            public Font font(int i) {
+                return (selections[i] == 1 || selections[i] == 3) ? RenderCache.CASH_FONT : RenderCache.CASE_FONT;
+            }
+        }, 7, CASE_WIDTH, CASE_HEIGHT, LAYOUT_WIDTH_INC, LAYOUT_HEIGHT_INC);
+        caseView.addMouseListener(new MyMouseListener());
+        if (largeBoard) {
+            JScrollPane casePane = new JScrollPane(caseView, JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+            casePane.setBorder(null);
+            casePane.setOpaque(false);
+            casePane.getViewport().setOpaque(false);
+            casePane.setBounds(LAYOUT_LEFT, LAYOUT_TOP, 7 * LAYOUT_WIDTH_INC, LARGE_BOARD_ROWS * LAYOUT_HEIGHT_INC);
+            panel.add(casePane);
+        } else {
+            caseView.setBounds(new Rectangle(new Point(LAYOUT_LEFT, LAYOUT_TOP), caseView.getPreferredSize()));
+            panel.add(caseView);
+        }
+
+        // Initialize the views of the plates, with the even plates on the left and the odd plates on the right
+        final Font plateFont = UIManager.getFont("Label.font");
+        final Color plateColor = UIManager.getColor("Label.foreground");
+        plateViews = new BoardView[2];
+        for (int side = 0; side < 2; side++) {
+            final int offset = side;
+            plateViews[side] = new BoardView(new BoardView.Cells() {
+                public int count() {
+                    return (game.size() + 1 - offset) / 2;
+                }
+
+                public String image(int i) {
+                    return (valueTaken[2 * i + offset]) ? PLATE_TAKEN_IMAGE : PLATE_IMAGE;
+                }
+
+                public String text(int i) {
+                    return cashLabels[plateValues[2 * i + offset]];
+                }
+
+                public Color color(int i) {
+                    return plateColor;
+                }
+
+                public Font font(int i) {
+                    return plateFont;
+                }
+            }, 1, VALUES_WIDTH, VALUES_HEIGHT, VALUES_WIDTH, VALUES_HEIGHT_INC);
+            if (largeBoard) {
+                JScrollPane platePane = new JScrollPane(plateViews[side], JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+                platePane.setBorder(null);
+                platePane.setOpaque(false);
+                platePane.getViewport().setOpaque(false);
+                platePane.setBounds(VALUES_LEFT + side * VALUES_WIDTH_INC, VALUES_TOP, LAYOUT_LEFT - VALUES_LEFT - 5, LARGE_BOARD_ROWS * LAYOUT_HEIGHT_INC);
+                panel.add(platePane);
+            } else {
+                plateViews[side].setBounds(new Rectangle(new Point(VALUES_LEFT + side * VALUES_WIDTH_INC, VALUES_TOP), plateViews[side].getPreferredSize()));
+                panel.add(plateViews[side]);
+            }
+        }
     }
 
     /**
@@ -393,6 +676,20 @@ public class GUI extends JFrame implements ActionListener {
         t.beep();
     }
 
+    /**
+     * Returns the money value plate that shows a cash value.
+     * The values go down the left side of the screen, then down the right side.
+     *
+     * @param v the index of the cash value in <code>cashValues</code>
+     * @return the index of the plate, counting across the rows of the left and right plates
+     */
+    private int plateIndex(int v) {
+        if (game.size() % 2 == 0) {
+            return (v * 2 + (v / (game.size() / 2))) % game.size();
+        }
+        return ((v * 2 + v / (game.size() / 2 + 1)) % game.size()) - (v / (game.size() / 2 + 1));
+    }
+
     /**
      * Returns the image that corresponds to the input selection.
      *
@@ -401,11 +698,11 @@ public class GUI extends JFrame implements ActionListener {
      */
     private String imageFileName(int selection) {
         if (selection == 0) {
-            return "Img/ClosedBriefcase.png";
+            return CLOSED_IMAGE;
         } else if (selection == 1 || selection == 3) {
-            return "Img/OpenBriefcase.png";
+            return OPEN_IMAGE;
         } else if (selection == 2) {
-            return "Img/ChosenBriefcase.png";
+            return CHOSEN_IMAGE;
         }
         return "";
     }
@@ -413,24 +710,36 @@ public class GUI extends JFrame implements ActionListener {
     /**
      * Returns a string of HTML wih items in the previous offers
      * list <code>offers</code>, seperated by line breaks.
+     * Large boards only show the most recent offers, so the cost does not grow with the game.
      *
      * @param offers Double ArrayList with the previous offers
      * @return HTML String representation of the previous offers
      */
     private String generateOffersHTML(ArrayList<Double> offers) {
         String str = "<html>Previous Offers:";
-        for (double cash : offers) {
-            str += String.format("<br>$%s", formatter.format(cash));
+        int first = (largeBoard) ? Math.max(0, offers.size() - LARGE_BOARD_OFFERS) : 0;
+        for (double cash : offers.subList(first, offers.size())) {
+            str += "<br>$" + Money.format(Money.ofDollars(cash));
         }
         str += "</html>";
         return str;
     }
 
     /**
-     * Respond to a button click.
+     * Respond to a button click, timing it for the game metrics.
      * @param e the button click action event
      */
     public void actionPerformed(ActionEvent e) {
+        long start = GameMetrics.start();
+        handleAction(e);
+        GameMetrics.stop(GameMetrics.ACTION_PERFORMED, start);
+    }
+
+    /**
+     * Respond to a button click.
+     * @param e the button click action event
+     */
+    private void handleAction(ActionEvent e) {
         // Use an if statement to get the source of the ActionEvent
         if (e.getSource().equals(dealButton)) {
 
@@ -452,10 +761,11 @@ public class GUI extends JFrame implements ActionListener {
 
             // Increase the stage of the game
             game.caseOpened();
+            previewStale = true;
 
             // Update the JLabel of the previous offers with the new offer
             previousOffersMsg.setText(generateOffersHTML(offers));
-            previousOffersMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - previousOffersMsg.getPreferredSize().getWidth()) / 2), BUTTON_TOP + BUTTON_HEIGHT_INC + LABEL_HEIGHT_INC, 100, 180 + 12 * (game.numStages() - 9));
+            previousOffersMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - previousOffersMsg.getPreferredSize().getWidth()) / 2), BUTTON_TOP + BUTTON_HEIGHT_INC + LABEL_HEIGHT_INC, 100, 180 + 12 * extraStages);
 
             // Repaint the game board
             repaint();
@@ -469,9 +779,13 @@ public class GUI extends JFrame implements ActionListener {
             gameOver = false;
             offers.clear();
             previousOffersMsg.setText(generateOffersHTML(offers));
-            previousOffersMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - previousOffersMsg.getPreferredSize().getWidth()) / 2), BUTTON_TOP + BUTTON_HEIGHT_INC + LABEL_HEIGHT_INC, 100, 180 + 12 * (game.numStages() - 9));
+            previousOffersMsg.setBounds((int) (LABEL_LEFT + (DEFAULT_WIDTH - LAYOUT_LEFT - LABEL_LEFT - previousOffersMsg.getPreferredSize().getWidth()) / 2), BUTTON_TOP + BUTTON_HEIGHT_INC + LABEL_HEIGHT_INC, 100, 180 + 12 * extraStages);
             Arrays.fill(selections, 0);
             Arrays.fill(valueTaken, false);
+            chosenCase = -1;
+            openedSinceOfferCount = 0;
+            previewStale = true;
+            markAll();
 
             // Repaint the game board
             repaint();
@@ -495,59 +809,72 @@ public class GUI extends JFrame implements ActionListener {
          * Handle a mouse click on a briefcase by changing its
          * selection value from 0 to 1 or choosing the first
          * case to keep for the end.
-         * Each briefcase is represented as a label.
+         * Each briefcase is a cell of the view of the cases.
+         * The click is timed for the game metrics.
          * @param e the mouse event.
          */
         public void mouseClicked(MouseEvent e) {
+            long start = GameMetrics.start();
+            handleClick(e);
+            GameMetrics.stop(GameMetrics.MOUSE_CLICKED, start);
+        }
+
+        /**
+         * Handle a mouse click on a briefcase.
+         * @param e the mouse event.
+         */
+        private void handleClick(MouseEvent e) {
 
             // Clicks will only register if the game is not over and a deal is not proposed
             if (!game.dealOrNoDeal() && !gameOver && !game.isDone(1)) {
 
-                // Loop over the cases to find the source of the MouseEvent
-                for (int i = 0; i < game.size(); i++) {
-                    if (e.getSource().equals(displayCases[i])) {
-
-                        // Check whether to record the first case or not
-                        if (keepFlag) {
-
-                            // Set the briefcase as the chosen case
-                            selections[i] = 2;
-                            game.caseChosen(i);
-
-                            // Dry keepFlag to false
-                            keepFlag = false;
-                        } else if (selections[i] == 0) {
-
-                            // Check if the game is at the point to choose between the two last cases
-                            if (game.isDone(2)) {
-
-                                // Set the briefcase to open
-                                selections[i] = 1;
-
-                                // Signal to the Briefcases class to signal the end of the game by depleting all the briefcases
-                                game.updateLastCase(i);
-                            } else {
-
-                                // Set the briefcase to open
-                                selections[i] = 1;
-
-                                // Loop over the possible cash values to update the money value plates through the valueTaken array
-                                for (int j = 0; j < game.size(); j++) {
-                                    if (game.cashValues[j] == game.cashIn(i)) {
-                                        if (game.size() % 2 == 0) {
-                                            valueTaken[(j * 2 + (j / (game.size() / 2))) % game.size()] = true;
-                                        } else {
-                                            valueTaken[((j * 2 + j / (game.size() / 2 + 1)) % game.size()) - (j / (game.size() / 2 + 1))] = true;
-                                        }
-                                    }
-                                }
-                            }
+                // Find the briefcase from the position in the view, without searching
+                int i = caseView.cellAt(e.getPoint());
+                if (i >= 0 && !caseHidden[i]) {
+
+                    // Check whether to record the first case or not
+                    if (keepFlag) {
+
+                        // Set the briefcase as the chosen case
+                        selections[i] = 2;
+                        chosenCase = i;
+                        game.caseChosen(i);
+                        markCase(i);
+                        previewStale = true;
+
+                        // Dry keepFlag to false
+                        keepFlag = false;
+                    } else if (selections[i] == 0) {
+
+                        // Check if the game is at the point to choose between the two last cases
+                        if (game.isDone(2)) {
+
+                            // Set the briefcase to open
+                            selections[i] = 1;
+
+                            // Signal to the Briefcases class to signal the end of the game by depleting all the briefcases
+                            game.updateLastCase(i);
+                            game.openCase(i);
+                            markCase(i);
+                        } else {
+
+                            // Open the briefcase, which is removed from the board after the next offer
+                            game.openCase(i);
+                            selections[i] = 1;
+                            openedSinceOffer[openedSinceOfferCount++] = i;
+                            previewStale = true;
+                            markCase(i);
+
+                            // Update the money value plate of the case's cash through the valueTaken array
+                            int plate = plateIndex(game.valueIndexIn(i));
+                            valueTaken[plate] = true;
+                            markPlate(plate);
                         }
-
-                        // Repaint the game board
-                        repaint();
-                        return;
                     }
+
+                    // Repaint the game board
+                    repaint();
+                    return;
                 }
 
                 // Handle a click not on a briefcase
@@ -0,0 +1,268 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class GameAnalytics implements Consumer<GameEvent> {
+
+    /** First 4 bytes of an analytics file ("DONA"). */
+    private static final int MAGIC = 0x444F4E41;
+    /** Version of the file layout. */
+    private static final int VERSION = 1;
+    /** Width of a bucket of offer-to-mean ratios. */
+    private static final double RATIO_WIDTH = 0.05;
+    /** Number of buckets of ratios below 2, with one more bucket for every ratio of 2 or more. */
+    private static final int RATIO_BUCKETS = 40;
+
+    /** Earnings of every game, in cents. */
+    private final QuantileSketch earnings = new QuantileSketch();
+    /** Regret (possible earnings minus earnings) of every game, in cents. */
+    private final QuantileSketch regret = new QuantileSketch();
+    /** Number of games, after a deal at stage #i - 1, or with the final case at 0. */
+    private long[] stageGames = new long[1];
+    /** Total regret in cents of the games, after a deal at stage #i - 1, or with the final case at 0. */
+    private long[] stageRegret = new long[1];
+    /** Number of offers made in each bucket of offer-to-mean ratios. */
+    private final long[] ratioOffers = new long[RATIO_BUCKETS + 1];
+    /** Number of offers taken in each bucket of offer-to-mean ratios. */
+    private final long[] ratioDeals = new long[RATIO_BUCKETS + 1];
+    /** Ratio bucket of the last offer of the current game, or -1 if there is none. */
+    private int offerBucket = -1;
+    /** Stage of the deal of the current game, or -1 if no deal has been taken. */
+    private int dealStage = -1;
+
+    /**
+     * Adds an event to the aggregates. Every aggregate is updated in constant time as the games finish,
+     * so the results are never worked out again from the games. The events must be the events of
+     * a single board in order, and the analytics of other boards can be merged in afterwards.
+     * @param event the event.
+     */
+    public void accept(GameEvent event) {
+        switch (event.getType()) {
+            case GameEvent.OFFER:
+                offerBucket = ratioBucket(event.getCents(), event.getOtherCents());
+                ratioOffers[offerBucket]++;
+                break;
+            case GameEvent.DEAL:
+                if (offerBucket >= 0) ratioDeals[offerBucket]++;
+                dealStage = event.getIndex();
+                break;
+            case GameEvent.GAME_OVER:
+                int stage = (event.getIndex() < 0) ? dealStage + 1 : 0;
+                if (stage >= stageGames.length) {
+                    stageGames = Arrays.copyOf(stageGames, stage + 1);
+                    stageRegret = Arrays.copyOf(stageRegret, stage + 1);
+                }
+                long gameRegret = Math.max(0, event.getOtherCents() - event.getCents());
+                earnings.add(event.getCents());
+                regret.add(gameRegret);
+                stageGames[stage]++;
+                stageRegret[stage] += gameRegret;
+                offerBucket = -1;
+                dealStage = -1;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Adds the games of other analytics, such as those of another board, as if they had been added to these.
+     * @param other the other analytics.
+     */
+    public void merge(GameAnalytics other) {
+        earnings.merge(other.earnings);
+        regret.merge(other.regret);
+        if (other.stageGames.length > stageGames.length) {
+            stageGames = Arrays.copyOf(stageGames, other.stageGames.length);
+            stageRegret = Arrays.copyOf(stageRegret, other.stageRegret.length);
+        }
+        for (int i = 0; i < other.stageGames.length; i++) {
+            stageGames[i] += other.stageGames[i];
+            stageRegret[i] += other.stageRegret[i];
+        }
+        for (int i = 0; i <= RATIO_BUCKETS; i++) {
+            ratioOffers[i] += other.ratioOffers[i];
+            ratioDeals[i] += other.ratioDeals[i];
+        }
+    }
+
+    /**
+     * Accesses the number of games.
+     * @return the number of games.
+     */
+    public long getGames() {
+        return earnings.count();
+    }
+
+    /**
+     * Finds a quantile of the earnings.
+     * @param quantile the quantile, from 0 to 1.
+     * @return the earnings in cents, within 2%.
+     */
+    public long earningsQuantile(double quantile) {
+        return earnings.quantile(quantile);
+    }
+
+    /**
+     * Finds a quantile of the regret (possible earnings minus earnings).
+     * @param quantile the quantile, from 0 to 1.
+     * @return the regret in cents, within 2%.
+     */
+    public long regretQuantile(double quantile) {
+        return regret.quantile(quantile);
+    }
+
+    /**
+     * Accesses the number of games that ended at a stage.
+     * @param stage the index of the stage of the deal, or -1 for the games played to the final case.
+     * @return the number of games.
+     */
+    public long getStageGames(int stage) {
+        return (stage + 1 < stageGames.length) ? stageGames[stage + 1] : 0;
+    }
+
+    /**
+     * Calculates the mean regret of the games that ended at a stage.
+     * @param stage the index of the stage of the deal, or -1 for the games played to the final case.
+     * @return the mean regret in cents, or 0 if no game ended there.
+     */
+    public long meanRegret(int stage) {
+        long games = getStageGames(stage);
+        return (games == 0) ? 0 : Money.divide(stageRegret[stage + 1], games);
+    }
+
+    /**
+     * Calculates how often offers are taken at an offer-to-mean ratio.
+     * @param ratio the offer divided by the mean of the remaining cash.
+     * @return the fraction of the offers in the ratio's bucket that were taken, or NaN if there were none.
+     */
+    public double dealRate(double ratio) {
+        int bucket = (ratio >= RATIO_BUCKETS * RATIO_WIDTH) ? RATIO_BUCKETS : (int) Math.max(0, ratio / RATIO_WIDTH);
+        return (ratioOffers[bucket] == 0) ? Double.NaN : (double) ratioDeals[bucket] / ratioOffers[bucket];
+    }
+
+    /**
+     * Finds the bucket of an offer-to-mean ratio.
+     * @param offer the offer in cents.
+     * @param mean the mean of the remaining cash in cents.
+     * @return the index of the bucket.
+     */
+    private static int ratioBucket(long offer, long mean) {
+        if (mean <= 0 || offer >= RATIO_BUCKETS * RATIO_WIDTH * mean) return RATIO_BUCKETS;
+        return (int) (offer / (RATIO_WIDTH * mean));
+    }
+
+    /**
+     * Prints the quantiles of the earnings and regret, the regret by the stage of the deal,
+     * and the deal rate by offer-to-mean ratio.
+     * @param out the stream to print to.
+     */
+    public void report(PrintStream out) {
+        out.printf("Analyzed Games: %,d%n", getGames());
+        out.println("Earnings p10/p50/p90/p99: $" + Money.format(earningsQuantile(0.10)) + " / $" + Money.format(earningsQuantile(0.50))
+                + " / $" + Money.format(earningsQuantile(0.90)) + " / $" + Money.format(earningsQuantile(0.99)));
+        out.println("Regret p50/p90/p99: $" + Money.format(regretQuantile(0.50)) + " / $" + Money.format(regretQuantile(0.90))
+                + " / $" + Money.format(regretQuantile(0.99)));
+        out.println("Regret by deal stage:");
+        for (int stage = 0; stage + 1 < stageGames.length; stage++) {
+            if (getStageGames(stage) > 0) {
+                out.printf("  Offer %d: %,d games, mean regret $%s%n", stage + 1, getStageGames(stage), Money.format(meanRegret(stage)));
+            }
+        }
+        if (getStageGames(-1) > 0) {
+            out.printf("  Final case: %,d games, mean regret $%s%n", getStageGames(-1), Money.format(meanRegret(-1)));
+        }
+        out.println("Deal rate by offer-to-mean ratio:");
+        for (int i = 0; i <= RATIO_BUCKETS; i++) {
+            if (ratioOffers[i] > 0) {
+                String range = (i == RATIO_BUCKETS) ? String.format("%.2f+", i * RATIO_WIDTH) : String.format("%.2f-%.2f", i * RATIO_WIDTH, (i + 1) * RATIO_WIDTH);
+                out.printf("  %s: %.1f%% of %,d offers%n", range, 100.0 * ratioDeals[i] / ratioOffers[i], ratioOffers[i]);
+            }
+        }
+    }
+
+    /**
+     * Opens stored analytics, so new games can be added to the games of earlier runs.
+     * @param file the analytics file.
+     * @return the stored analytics, or empty analytics if the file does not exist.
+     * @throws IOException if the file cannot be read or is not an analytics file.
+     */
+    public static GameAnalytics open(Path file) throws IOException {
+        GameAnalytics analytics = new GameAnalytics();
+        if (!Files.exists(file)) return analytics;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not an analytics file.");
+            }
+            analytics.earnings.merge(QuantileSketch.read(in));
+            analytics.regret.merge(QuantileSketch.read(in));
+            int stages = in.readInt();
+            if (stages < 1) {
+                throw new IOException(file + " is not an analytics file.");
+            }
+            analytics.stageGames = new long[stages];
+            analytics.stageRegret = new long[stages];
+            for (int i = 0; i < stages; i++) {
+                analytics.stageGames[i] = in.readLong();
+                analytics.stageRegret[i] = in.readLong();
+            }
+            for (int i = 0; i <= RATIO_BUCKETS; i++) {
+                analytics.ratioOffers[i] = in.readLong();
+                analytics.ratioDeals[i] = in.readLong();
+            }
+        }
+        return analytics;
+    }
+
+    /**
+     * Stores the analytics. The file is replaced in one step, so it is never left half written.
+     * @param file the analytics file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            earnings.write(out);
+            regret.write(out);
+            out.writeInt(stageGames.length);
+            for (int i = 0; i < stageGames.length; i++) {
+                out.writeLong(stageGames[i]);
+                out.writeLong(stageRegret[i]);
+            }
+            for (int i = 0; i <= RATIO_BUCKETS; i++) {
+                out.writeLong(ratioOffers[i]);
+                out.writeLong(ratioDeals[i]);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Prints stored analytics, without going through any of the games again.
+     * @param args the analytics file.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            Main.sendError("Usage: java -cp DealOrNoDeal.jar GameAnalytics <analytics file>");
+        }
+        if (!Files.exists(Paths.get(args[0]))) {
+            Main.sendError(args[0] + " does not exist.");
+        }
+        try {
+            open(Paths.get(args[0])).report(System.out);
+        } catch (IOException e) {
+            Main.sendError("Could not read " + args[0] + ": " + e.getMessage());
+        }
+    }
+}
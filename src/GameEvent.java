@@ -0,0 +1,92 @@
+public class GameEvent {
+
+    /** Event of the player choosing their case. The index is the case. */
+    public static final int CHOSEN = 1;
+    /** Event of a case being opened. The index is the case and the cents are its cash. */
+    public static final int OPENED = 2;
+    /** Event of the banker making an offer. The index is the stage, the cents are the offer, and the other cents are the mean of the remaining cash. */
+    public static final int OFFER = 3;
+    /** Event of the player taking the offer. The index is the stage and the cents are the offer. */
+    public static final int DEAL = 4;
+    /** Event of a game ending. The index is the final case taken, or -1 after a deal, the cents are the earnings, and the other cents are the possible earnings. */
+    public static final int GAME_OVER = 5;
+
+    /** Type of the event. */
+    private final int type;
+    /** Seed of the game's shuffle, which identifies the game. */
+    private final long seed;
+    /** Case or stage of the event, depending on the type. */
+    private final int index;
+    /** Amount of the event in cents, depending on the type. */
+    private final long cents;
+    /** Second amount of the event in cents, depending on the type, or 0. */
+    private final long otherCents;
+
+    /**
+     * Initialize the <code>GameEvent</code>.
+     * @param type the type of the event (<code>CHOSEN</code>, <code>OPENED</code>, ...).
+     * @param seed the seed of the game's shuffle.
+     * @param index the case or stage of the event.
+     * @param cents the amount of the event in cents.
+     * @param otherCents the second amount of the event in cents, or 0.
+     */
+    public GameEvent(int type, long seed, int index, long cents, long otherCents) {
+        this.type = type;
+        this.seed = seed;
+        this.index = index;
+        this.cents = cents;
+        this.otherCents = otherCents;
+    }
+
+    /**
+     * Accesses the type of the event.
+     * @return <code>CHOSEN</code>, <code>OPENED</code>, <code>OFFER</code>, <code>DEAL</code>, or <code>GAME_OVER</code>.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Accesses the game of the event.
+     * @return the seed of the game's shuffle.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Accesses the case or stage of the event, depending on the type.
+     * @return the index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Accesses the amount of the event, depending on the type.
+     * @return the amount in cents.
+     */
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * Accesses the second amount of the event, depending on the type.
+     * @return the amount in cents, or 0.
+     */
+    public long getOtherCents() {
+        return otherCents;
+    }
+
+    /**
+     * Describes the event, such as "OFFER 42 3 $12,500.00 $38,000.00".
+     * @return the description.
+     */
+    public String toString() {
+        String[] names = {"", "CHOSEN", "OPENED", "OFFER", "DEAL", "GAME_OVER"};
+        StringBuilder text = new StringBuilder(64).append(names[type]).append(' ').append(seed).append(' ').append(index);
+        if (type != CHOSEN) Money.appendGrouped(text.append(" $"), cents);
+        if (type == OFFER || type == GAME_OVER) Money.appendGrouped(text.append(" $"), otherCents);
+        return text.toString();
+    }
+}
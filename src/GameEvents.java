@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+public class GameEvents implements Flow.Publisher<List<GameEvent>>, AutoCloseable {
+
+    /** Number of events sent together if no batch size is given. */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /** Publisher that delivers the batches to each subscriber on its own, with a bounded buffer for each. */
+    private final SubmissionPublisher<List<GameEvent>> publisher;
+    /** Events of the batch that has not been sent yet. */
+    private final GameEvent[] batch;
+    /** Number of events in <code>batch</code>. */
+    private int count;
+    /** Seed of the current game. */
+    private long seed;
+    /** Stage of the last offer, which a deal belongs to. */
+    private int stage;
+
+    /**
+     * Initialize the <code>GameEvents</code>, delivering batches of <code>DEFAULT_BATCH_SIZE</code>
+     * events on the default asynchronous executor.
+     */
+    public GameEvents() {
+        publisher = new SubmissionPublisher<>();
+        batch = new GameEvent[DEFAULT_BATCH_SIZE];
+    }
+
+    /**
+     * Initialize the <code>GameEvents</code>.
+     * @param executor the executor that delivers the batches to the subscribers.
+     * @param bufferCapacity the largest number of batches held for a subscriber that has not asked for them.
+     * @param batchSize the number of events sent together, 1 to send every event as soon as it happens.
+     */
+    public GameEvents(Executor executor, int bufferCapacity, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1 event.");
+        }
+        publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+        batch = new GameEvent[batchSize];
+    }
+
+    /**
+     * Adds a subscriber, which gets the batches sent after it subscribes, as many as it requests.
+     * @param subscriber the subscriber.
+     */
+    public void subscribe(Flow.Subscriber<? super List<GameEvent>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Subscribes an action that handles every event in order, one batch at a time.
+     * @param action the action, which is run on the executor and not on the thread that plays the game.
+     * @return a future that completes once the events are closed and every event sent before has been handled.
+     */
+    public CompletableFuture<Void> consume(Consumer<? super GameEvent> action) {
+        return publisher.consume(events -> events.forEach(action));
+    }
+
+    /**
+     * Starts a new game.
+     * @param seed the seed of the shuffle.
+     */
+    public void seed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Adds the player choosing their case.
+     * @param c the index of the case.
+     */
+    public void chosen(int c) {
+        add(new GameEvent(GameEvent.CHOSEN, seed, c, 0, 0));
+    }
+
+    /**
+     * Adds a case being opened.
+     * @param c the index of the case.
+     * @param cents the cash in the case, in cents.
+     */
+    public void opened(int c, long cents) {
+        add(new GameEvent(GameEvent.OPENED, seed, c, cents, 0));
+    }
+
+    /**
+     * Adds an offer.
+     * @param stage the index of the stage of the offer.
+     * @param cents the offer, in cents.
+     * @param meanCents the mean of the remaining cash, in cents.
+     */
+    public void offer(int stage, long cents, long meanCents) {
+        this.stage = stage;
+        add(new GameEvent(GameEvent.OFFER, seed, stage, cents, meanCents));
+    }
+
+    /**
+     * Adds the player taking the last offer.
+     * @param cents the offer, in cents.
+     */
+    public void deal(long cents) {
+        add(new GameEvent(GameEvent.DEAL, seed, stage, cents, 0));
+    }
+
+    /**
+     * Adds the end of a game and sends the batch, so a game is never held back by the next one.
+     * @param finalCase the index of the final case taken, or -1 if the game ended with a deal.
+     * @param earnings the earnings, in cents.
+     * @param possible the possible earnings, in cents.
+     */
+    public void gameOver(int finalCase, long earnings, long possible) {
+        add(new GameEvent(GameEvent.GAME_OVER, seed, finalCase, earnings, possible));
+        flush();
+    }
+
+    /**
+     * Adds an event, sending the batch once it is full.
+     * @param event the event.
+     */
+    private void add(GameEvent event) {
+        batch[count++] = event;
+        if (count == batch.length) flush();
+    }
+
+    /**
+     * Sends the events that have not been sent yet as one batch. The game only waits if a subscriber
+     * has a full buffer of batches it has not asked for, so a slow subscriber holds back the game
+     * instead of losing events or using more memory.
+     */
+    public void flush() {
+        if (count == 0) return;
+        List<GameEvent> events = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(batch, count)));
+        Arrays.fill(batch, 0, count, null);
+        count = 0;
+        publisher.submit(events);
+    }
+
+    /**
+     * Sends the events that have not been sent yet and completes every subscriber once it has handled them.
+     */
+    public void close() {
+        flush();
+        publisher.close();
+    }
+}
@@ -0,0 +1,228 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class GameLog {
+
+    /** First 4 bytes of a game log ("DONL"). */
+    static final int MAGIC = 0x444F4E4C;
+    /** Version of the log layout (2 since boards are shuffled with SplitMix64). */
+    static final int VERSION = 2;
+
+    /** Event that starts a game, followed by the 8-byte seed of the shuffle. */
+    public static final int SEED = 1;
+    /** Event of the player choosing their case, followed by the case index. */
+    public static final int CHOOSE = 2;
+    /** Event of a case being opened, followed by the case index. */
+    public static final int OPEN = 3;
+    /** Event of the banker making an offer, followed by the 8-byte offer. */
+    public static final int OFFER = 4;
+    /** Event of the player taking the offer, which ends the game. */
+    public static final int DEAL = 5;
+    /** Event of the player turning down the offer. */
+    public static final int NO_DEAL = 6;
+    /** Event of the player keeping or swapping for the final case, followed by the case index. */
+    public static final int FINAL = 7;
+    /** Number of bytes of a game that has only been shuffled. */
+    private static final int UNPLAYED_LENGTH = 9;
+
+    /** Stream the games are written to, which may be shared by many logs. */
+    private final OutputStream out;
+    /** Events of the current game, which are written together so games from different threads never mix. */
+    private byte[] buffer = new byte[256];
+    /** Number of bytes in <code>buffer</code>. */
+    private int length;
+
+    /**
+     * Initialize the <code>GameLog</code>. The header must already be written to the stream.
+     * @param out the stream to write games to. Writes are synchronized on it.
+     */
+    public GameLog(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Opens a log file for appending, writing the header if the file is new.
+     * @param file the path of the log file.
+     * @param cashValues the sorted cash values of the board.
+     * @return the log.
+     * @throws IOException if the file cannot be opened, or was written for a different board.
+     */
+    public static GameLog open(Path file, double[] cashValues) throws IOException {
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        if (exists) {
+            try (InputStream in = Files.newInputStream(file)) {
+                if (!Arrays.equals(readHeader(in), cashValues)) {
+                    throw new IOException(file + " is a log of games with different briefcase values.");
+                }
+            }
+        }
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file.toFile(), true), 1 << 16);
+        if (!exists) {
+            writeHeader(out, cashValues);
+        }
+        return new GameLog(out);
+    }
+
+    /**
+     * Writes the header of a log, which holds the cash values so the games can be replayed.
+     * @param out the stream to write to.
+     * @param cashValues the sorted cash values of the board.
+     * @throws IOException if the stream cannot be written.
+     */
+    public static void writeHeader(OutputStream out, double[] cashValues) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(cashValues.length);
+        for (double cash : cashValues) {
+            data.writeDouble(cash);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads the header of a log.
+     * @param in the stream to read from.
+     * @return the cash values of the board.
+     * @throws IOException if the stream is not a game log.
+     */
+    public static double[] readHeader(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("The file is not a game log.");
+        }
+        double[] cashValues = new double[data.readInt()];
+        for (int i = 0; i < cashValues.length; i++) {
+            cashValues[i] = data.readDouble();
+        }
+        return cashValues;
+    }
+
+    /**
+     * Starts a new game, writing the previous one to the stream unless no move was made in it.
+     * @param seed the seed of the shuffle.
+     */
+    public void seed(long seed) {
+        flush();
+        put(SEED);
+        putLong(seed);
+    }
+
+    /**
+     * Records the player choosing their case.
+     * @param c the index of the case.
+     */
+    public void choose(int c) {
+        put(CHOOSE);
+        putVarInt(c);
+    }
+
+    /**
+     * Records a case being opened.
+     * @param c the index of the case.
+     */
+    public void open(int c) {
+        put(OPEN);
+        putVarInt(c);
+    }
+
+    /**
+     * Records an offer.
+     * @param offer the banker's offer.
+     */
+    public void offer(double offer) {
+        put(OFFER);
+        putLong(Double.doubleToRawLongBits(offer));
+    }
+
+    /**
+     * Records the player taking the offer.
+     */
+    public void deal() {
+        put(DEAL);
+    }
+
+    /**
+     * Records the player turning down the offer.
+     */
+    public void noDeal() {
+        put(NO_DEAL);
+    }
+
+    /**
+     * Records the final case the player takes.
+     * @param c the index of the case.
+     */
+    public void finalCase(int c) {
+        put(FINAL);
+        putVarInt(c);
+    }
+
+    /**
+     * Writes the events of the current game to the stream, unless no move was made in it.
+     * The stream is not flushed, so games are still written in large blocks.
+     */
+    public void flush() {
+        if (length == UNPLAYED_LENGTH && buffer[0] == SEED) length = 0;
+        if (length == 0) return;
+        synchronized (out) {
+            try {
+                out.write(buffer, 0, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        length = 0;
+    }
+
+    /**
+     * Writes the current game and closes the stream.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    /**
+     * Adds a byte to the current game.
+     * @param b the byte.
+     */
+    private void put(int b) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        }
+        buffer[length++] = (byte) b;
+    }
+
+    /**
+     * Adds a number with 7 bits per byte, so small case indices take a single byte.
+     * @param value the non-negative number.
+     */
+    private void putVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            put((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        put(value);
+    }
+
+    /**
+     * Adds 8 bytes, most significant first.
+     * @param value the number.
+     */
+    private void putLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            put((int) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,300 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class GameMetrics implements GameMetricsMBean {
+
+    /** Name the metrics are registered under in JMX. */
+    public static final String OBJECT_NAME = "DealOrNoDeal:type=GameMetrics";
+
+    /** Operation of <code>GUI.repaint()</code>. */
+    public static final int REPAINT = 0;
+    /** Operation of a mouse click on the board. */
+    public static final int MOUSE_CLICKED = 1;
+    /** Operation of <code>GUI.actionPerformed()</code>. */
+    public static final int ACTION_PERFORMED = 2;
+    /** Operation of the banker calculating an offer in <code>Briefcases.getOffer()</code>. */
+    public static final int GET_OFFER = 3;
+    /** Operation of <code>Briefcases.newGame()</code>. */
+    public static final int NEW_GAME = 4;
+    /** Name of the JFR event of the first frame being painted. */
+    private static final String FIRST_FRAME = "firstFrame";
+    /** Names of the operations, as they appear in the JFR events. */
+    private static final String[] OPERATIONS = {"repaint", "mouseClicked", "actionPerformed", "getOffer", "newGame"};
+
+    /** Model operations are only timed once every this many calls on a board (a power of 2), so simulations stay fast. */
+    public static final int MODEL_SAMPLE_RATE = 1024;
+
+    /** ith element is the latency of operation #i. */
+    private static final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    /** Number of games that ended. */
+    private static final LongAdder gamesPlayed = new LongAdder();
+    /** Number of offers the banker calculated. */
+    private static final LongAdder offersGenerated = new LongAdder();
+    /** Number of games that ended with a deal. */
+    private static final LongAdder dealsTaken = new LongAdder();
+    /** Time from the start of the JVM until the board was first painted, in milliseconds, or -1 before then. */
+    private static volatile long timeToFirstFrame = -1;
+
+    static {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Should only be instantiated by <code>register()</code>.
+     */
+    private GameMetrics() {
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, so they can be read with JConsole or any JMX client.
+     * Does nothing if they are already registered.
+     */
+    public static synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new GameMetrics(), name);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register the game metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts timing an operation.
+     * @return the start time to pass to <code>stop</code>.
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops timing an operation, records it in its histogram, and emits a JFR event if JFR is recording them.
+     * @param operation the operation, such as <code>REPAINT</code>.
+     * @param start the time returned by <code>start()</code>.
+     */
+    public static void stop(int operation, long start) {
+        long time = System.nanoTime() - start;
+        latencies[operation].record(time);
+        HotPathEvent event = new HotPathEvent();
+        if (event.isEnabled()) {
+            event.operation = OPERATIONS[operation];
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the time from the start of the JVM until now, when the window is first painted,
+     * and emits a JFR event for it. Only the first call counts.
+     */
+    public static void firstFrame() {
+        if (timeToFirstFrame >= 0) return;
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        timeToFirstFrame = millis;
+        HotPathEvent event = new HotPathEvent();
+        if (event.isEnabled()) {
+            event.operation = FIRST_FRAME;
+            event.time = millis * 1_000_000;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds to the counters.
+     * @param games the number of games that ended.
+     * @param deals the number of games that ended with a deal.
+     * @param offers the number of offers the banker calculated.
+     */
+    public static void count(long games, long deals, long offers) {
+        if (games != 0) gamesPlayed.add(games);
+        if (deals != 0) dealsTaken.add(deals);
+        if (offers != 0) offersGenerated.add(offers);
+    }
+
+    /**
+     * Accesses the latency of an operation.
+     * @param operation the operation, such as <code>REPAINT</code>.
+     * @return the histogram of the operation's latency.
+     */
+    public static LatencyHistogram latency(int operation) {
+        return latencies[operation];
+    }
+
+    /**
+     * Accesses the number of games that ended.
+     * @return the number of games.
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed.sum();
+    }
+
+    /**
+     * Accesses the number of offers the banker calculated.
+     * @return the number of offers.
+     */
+    public long getOffersGenerated() {
+        return offersGenerated.sum();
+    }
+
+    /**
+     * Accesses the number of games that ended with a deal.
+     * @return the number of deals.
+     */
+    public long getDealsTaken() {
+        return dealsTaken.sum();
+    }
+
+    /**
+     * Accesses the time from the start of the JVM until the board was first painted.
+     * @return the time in milliseconds, or -1 if the board has not been painted.
+     */
+    public long getTimeToFirstFrameMillis() {
+        return timeToFirstFrame;
+    }
+
+    /**
+     * Accesses the number of timed repaints.
+     * @return the number of repaints.
+     */
+    public long getRepaintCount() {
+        return latencies[REPAINT].count();
+    }
+
+    /**
+     * Accesses the median time of a repaint.
+     * @return the time in microseconds.
+     */
+    public double getRepaintP50Micros() {
+        return micros(REPAINT, 50);
+    }
+
+    /**
+     * Accesses the 99th percentile time of a repaint.
+     * @return the time in microseconds.
+     */
+    public double getRepaintP99Micros() {
+        return micros(REPAINT, 99);
+    }
+
+    /**
+     * Accesses the number of timed mouse clicks.
+     * @return the number of mouse clicks.
+     */
+    public long getMouseClickedCount() {
+        return latencies[MOUSE_CLICKED].count();
+    }
+
+    /**
+     * Accesses the median time to handle a mouse click.
+     * @return the time in microseconds.
+     */
+    public double getMouseClickedP50Micros() {
+        return micros(MOUSE_CLICKED, 50);
+    }
+
+    /**
+     * Accesses the 99th percentile time to handle a mouse click.
+     * @return the time in microseconds.
+     */
+    public double getMouseClickedP99Micros() {
+        return micros(MOUSE_CLICKED, 99);
+    }
+
+    /**
+     * Accesses the number of timed button clicks.
+     * @return the number of button clicks.
+     */
+    public long getActionPerformedCount() {
+        return latencies[ACTION_PERFORMED].count();
+    }
+
+    /**
+     * Accesses the median time to handle a button click.
+     * @return the time in microseconds.
+     */
+    public double getActionPerformedP50Micros() {
+        return micros(ACTION_PERFORMED, 50);
+    }
+
+    /**
+     * Accesses the 99th percentile time to handle a button click.
+     * @return the time in microseconds.
+     */
+    public double getActionPerformedP99Micros() {
+        return micros(ACTION_PERFORMED, 99);
+    }
+
+    /**
+     * Accesses the number of timed offer calculations (a sample of them).
+     * @return the number of offer calculations.
+     */
+    public long getGetOfferCount() {
+        return latencies[GET_OFFER].count();
+    }
+
+    /**
+     * Accesses the median time to calculate an offer.
+     * @return the time in microseconds.
+     */
+    public double getGetOfferP50Micros() {
+        return micros(GET_OFFER, 50);
+    }
+
+    /**
+     * Accesses the 99th percentile time to calculate an offer.
+     * @return the time in microseconds.
+     */
+    public double getGetOfferP99Micros() {
+        return micros(GET_OFFER, 99);
+    }
+
+    /**
+     * Accesses the number of timed new games (a sample of them).
+     * @return the number of new games.
+     */
+    public long getNewGameCount() {
+        return latencies[NEW_GAME].count();
+    }
+
+    /**
+     * Accesses the median time to set up a new game.
+     * @return the time in microseconds.
+     */
+    public double getNewGameP50Micros() {
+        return micros(NEW_GAME, 50);
+    }
+
+    /**
+     * Accesses the 99th percentile time to set up a new game.
+     * @return the time in microseconds.
+     */
+    public double getNewGameP99Micros() {
+        return micros(NEW_GAME, 99);
+    }
+
+    /**
+     * Clears the timings, but not the counters.
+     */
+    public void resetLatencies() {
+        for (LatencyHistogram latency : latencies) {
+            latency.reset();
+        }
+    }
+
+    /**
+     * Finds a percentile of an operation's latency.
+     * @param operation the operation.
+     * @param percentile the percentile, from 0 to 100.
+     * @return the latency in microseconds.
+     */
+    private static double micros(int operation, double percentile) {
+        return latencies[operation].percentile(percentile) / 1e3;
+    }
+}
@@ -0,0 +1,121 @@
+public interface GameMetricsMBean {
+
+    /**
+     * Accesses the number of games that ended.
+     * @return the number of games.
+     */
+    long getGamesPlayed();
+
+    /**
+     * Accesses the number of offers the banker calculated.
+     * @return the number of offers.
+     */
+    long getOffersGenerated();
+
+    /**
+     * Accesses the number of games that ended with a deal.
+     * @return the number of deals.
+     */
+    long getDealsTaken();
+
+    /**
+     * Accesses the time from the start of the JVM until the board was first painted.
+     * @return the time in milliseconds, or -1 if the board has not been painted.
+     */
+    long getTimeToFirstFrameMillis();
+
+    /**
+     * Accesses the number of timed repaints.
+     * @return the number of repaints.
+     */
+    long getRepaintCount();
+
+    /**
+     * Accesses the median time of a repaint.
+     * @return the time in microseconds.
+     */
+    double getRepaintP50Micros();
+
+    /**
+     * Accesses the 99th percentile time of a repaint.
+     * @return the time in microseconds.
+     */
+    double getRepaintP99Micros();
+
+    /**
+     * Accesses the number of timed mouse clicks.
+     * @return the number of mouse clicks.
+     */
+    long getMouseClickedCount();
+
+    /**
+     * Accesses the median time to handle a mouse click.
+     * @return the time in microseconds.
+     */
+    double getMouseClickedP50Micros();
+
+    /**
+     * Accesses the 99th percentile time to handle a mouse click.
+     * @return the time in microseconds.
+     */
+    double getMouseClickedP99Micros();
+
+    /**
+     * Accesses the number of timed button clicks.
+     * @return the number of button clicks.
+     */
+    long getActionPerformedCount();
+
+    /**
+     * Accesses the median time to handle a button click.
+     * @return the time in microseconds.
+     */
+    double getActionPerformedP50Micros();
+
+    /**
+     * Accesses the 99th percentile time to handle a button click.
+     * @return the time in microseconds.
+     */
+    double getActionPerformedP99Micros();
+
+    /**
+     * Accesses the number of timed offer calculations (a sample of them).
+     * @return the number of offer calculations.
+     */
+    long getGetOfferCount();
+
+    /**
+     * Accesses the median time to calculate an offer.
+     * @return the time in microseconds.
+     */
+    double getGetOfferP50Micros();
+
+    /**
+     * Accesses the 99th percentile time to calculate an offer.
+     * @return the time in microseconds.
+     */
+    double getGetOfferP99Micros();
+
+    /**
+     * Accesses the number of timed new games (a sample of them).
+     * @return the number of new games.
+     */
+    long getNewGameCount();
+
+    /**
+     * Accesses the median time to set up a new game.
+     * @return the time in microseconds.
+     */
+    double getNewGameP50Micros();
+
+    /**
+     * Accesses the 99th percentile time to set up a new game.
+     * @return the time in microseconds.
+     */
+    double getNewGameP99Micros();
+
+    /**
+     * Clears the timings, but not the counters.
+     */
+    void resetLatencies();
+}
@@ -0,0 +1,277 @@
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.util.concurrent.Flow;
+
+public class GameReplay {
+
+    /** Size of the read buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Stream the log is read from. */
+    private final InputStream in;
+    /** Sorted cash values from the header of the log. */
+    private final double[] cashValues;
+    /** Read buffer, so single bytes can be read without a call per byte. */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    /** Position of the next byte in <code>buffer</code>. */
+    private int position;
+    /** Number of bytes in <code>buffer</code>. */
+    private int limit;
+    /** Number of games replayed. */
+    private long games;
+    /** Number of events replayed. */
+    private long events;
+    /** Number of logged offers that differ from the offer the model calculates now. */
+    private long changedOffers;
+
+    /**
+     * Initialize the <code>GameReplay</code> and read the header of the log.
+     * @param in the stream with the log.
+     * @throws IOException if the stream is not a game log.
+     */
+    public GameReplay(InputStream in) throws IOException {
+        this.in = in;
+        cashValues = GameLog.readHeader(in);
+    }
+
+    /**
+     * Accesses the cash values of the logged games.
+     * @return a copy of the sorted cash values.
+     */
+    public double[] getCashValues() {
+        return cashValues.clone();
+    }
+
+    /**
+     * Replays every remaining game in the log through a board.
+     * The moves are applied to the model, so the statistics and offers are calculated again,
+     * which also re-scores old games after the banker's formula changes.
+     * @param game the board to replay on, made with the log's cash values.
+     * @return an array with the number of games, the total earnings, and the total possible earnings, in cents.
+     * @throws IOException if the log cannot be read or is not a valid game log.
+     */
+    public long[] replayAll(Briefcases game) throws IOException {
+        long[] before = game.getStatisticsCents();
+        long start = games;
+        int event;
+        while ((event = read()) >= 0) {
+            apply(game, event, null);
+        }
+        long[] after = game.getStatisticsCents();
+        return new long[] {games - start, after[2] - before[2], after[3] - before[3]};
+    }
+
+    /**
+     * Reconstructs a single game and prints every move.
+     * @param game the board to replay on, made with the log's cash values.
+     * @param number the number of the game in the log, starting from 1.
+     * @param out the stream to print the moves to.
+     * @return true if the game was found.
+     * @throws IOException if the log cannot be read or is not a valid game log.
+     */
+    public boolean describe(Briefcases game, long number, PrintStream out) throws IOException {
+        int event;
+        while ((event = read()) >= 0) {
+            if (event == GameLog.SEED && games + 1 > number) break;
+            boolean shown = games == number || (event == GameLog.SEED && games + 1 == number);
+            apply(game, event, (shown) ? out : null);
+        }
+        if (games != number) return false;
+        long[] stats = game.getStatisticsCents();
+        out.println("Earnings: $" + Money.format(stats[0]) + ", Possible Earnings: $" + Money.format(stats[1]));
+        return true;
+    }
+
+    /**
+     * Accesses the number of events replayed.
+     * @return the number of events.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * Accesses the number of logged offers that the model would not make now.
+     * @return the number of changed offers.
+     */
+    public long getChangedOffers() {
+        return changedOffers;
+    }
+
+    /**
+     * Applies one event to the board.
+     * @param game the board.
+     * @param event the type of the event.
+     * @param out the stream to describe the event on, or null.
+     * @throws IOException if the event is incomplete or unknown.
+     */
+    private void apply(Briefcases game, int event, PrintStream out) throws IOException {
+        events++;
+        switch (event) {
+            case GameLog.SEED:
+                long seed = readLong();
+                game.newGame(seed);
+                games++;
+                if (out != null) out.println("Game #" + games + " (seed " + seed + ")");
+                break;
+            case GameLog.CHOOSE:
+                int chosen = readVarInt();
+                game.caseChosen(chosen);
+                if (out != null) out.println("Chose briefcase #" + (chosen + 1));
+                break;
+            case GameLog.OPEN:
+                int opened = readVarInt();
+                if (out != null) out.println("Opened briefcase #" + (opened + 1) + ": $" + Money.format(game.centsIn(opened)));
+                game.openCase(opened);
+                break;
+            case GameLog.OFFER:
+                double offer = Double.longBitsToDouble(readLong());
+                if (game.getOffer() != offer) changedOffers++;
+                if (out != null) out.println("Banker's Offer: $" + Money.format(Money.ofDollars(offer)) + " (now $" + Money.format(Money.ofDollars(game.getOffer())) + ")");
+                break;
+            case GameLog.DEAL:
+                game.caseOpened();
+                game.tookDeal();
+                if (out != null) out.println("Deal");
+                break;
+            case GameLog.NO_DEAL:
+                game.caseOpened();
+                if (out != null) out.println("No Deal");
+                break;
+            case GameLog.FINAL:
+                int last = readVarInt();
+                game.updateLastCase(last);
+                game.caseOpened();
+                if (out != null) out.println("Took briefcase #" + (last + 1) + ": $" + Money.format(game.centsIn(last)));
+                break;
+            default:
+                throw new IOException("Unknown event " + event + " in the game log.");
+        }
+    }
+
+    /**
+     * Reads a byte from the log.
+     * @return the byte, or -1 at the end of the log.
+     * @throws IOException if the log cannot be read.
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Reads a byte that must be there.
+     * @return the byte.
+     * @throws IOException if the log ends in the middle of an event.
+     */
+    private int readByte() throws IOException {
+        int b = read();
+        if (b < 0) throw new EOFException("The game log ends in the middle of an event.");
+        return b;
+    }
+
+    /**
+     * Reads a number with 7 bits per byte.
+     * @return the number.
+     * @throws IOException if the log ends in the middle of the number.
+     */
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    /**
+     * Reads 8 bytes, most significant first.
+     * @return the number.
+     * @throws IOException if the log ends in the middle of the number.
+     */
+    private long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    /**
+     * Replays a game log and prints the results, or prints the moves of a single game.
+     * @param args the log file, and optionally the number of a game to show.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            Main.sendError("Usage: java -cp DealOrNoDeal.jar GameReplay <log file> <game number>");
+        }
+        long number = 0;
+        if (args.length == 2) {
+            try {
+                number = Long.parseLong(args[1]);
+            } catch (NumberFormatException e) {
+                Main.sendError(args[1] + " is not a game number.");
+            }
+        }
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(args[0])), BUFFER_SIZE)) {
+            GameReplay replay = new GameReplay(in);
+            Briefcases game = new Briefcases(replay.getCashValues());
+            try {
+                game.setBanker(Banker.create(System.getProperty("banker", "bradley"), game));
+            } catch (IllegalArgumentException e) {
+                Main.sendError(e.getMessage());
+            }
+            if (number > 0) {
+                if (!replay.describe(game, number, System.out)) {
+                    Main.sendError("There is no game #" + number + " in the log.");
+                }
+                return;
+            }
+
+            // Add the replayed games to the stored analytics if an analytics file is given
+            String analyticsFile = System.getProperty("analytics", "");
+            GameAnalytics analytics = null;
+            GameEvents events = null;
+            if (!analyticsFile.isEmpty()) {
+                analytics = GameAnalytics.open(Paths.get(analyticsFile));
+                events = new GameEvents(Runnable::run, Flow.defaultBufferSize(), GameEvents.DEFAULT_BATCH_SIZE);
+                events.consume(analytics);
+                game.setEvents(events);
+            }
+
+            // Replay every game and time it
+            long start = System.nanoTime();
+            long[] result = replay.replayAll(game);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            DecimalFormat formatter = new DecimalFormat("#,##0.00");
+            System.out.println("Games: " + result[0]);
+            System.out.println("Events: " + replay.getEvents());
+            System.out.println("Games/second: " + formatter.format(result[0] / seconds));
+            System.out.println("Changed offers: " + replay.getChangedOffers());
+            System.out.println("Total Earnings: $" + Money.format(result[1]));
+            System.out.println("Total Possible Earnings: $" + Money.format(result[2]));
+            if (analytics != null) {
+                events.close();
+                analytics.save(Paths.get(analyticsFile));
+                analytics.report(System.out);
+            }
+        } catch (IOException e) {
+            Main.sendError("Could not replay " + args[0] + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameServer {
+
+    /** Port the server listens on if none is given. */
+    public static final int DEFAULT_PORT = 7026;
+    /** Number of connections that can wait to be accepted. */
+    private static final int BACKLOG = 4096;
+
+    /** Array with all possible cash values, copied for each session. */
+    private final double[] cashValues;
+    /** Socket that accepts new connections. */
+    private final ServerSocket serverSocket;
+    /** Number of sessions that are connected. */
+    private final AtomicInteger sessions = new AtomicInteger();
+    /** Generator that is split for each session, only used by the thread that accepts connections. */
+    private final SplittableRandom random = new SplittableRandom();
+
+    /**
+     * Initialize the <code>GameServer</code> on the loopback address.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param port the port to listen on, or 0 for any free port.
+     * @throws IOException if the port cannot be opened.
+     */
+    public GameServer(double[] moneyValues, int port) throws IOException {
+        if (moneyValues.length < 2) {
+            throw new IllegalArgumentException("There must be at least 2 money values.");
+        }
+        cashValues = moneyValues;
+        serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Accesses the port the server is listening on.
+     * @return the port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accesses the number of sessions that are connected.
+     * @return the number of sessions.
+     */
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    /**
+     * Accepts connections until the server is closed. Each connection gets its own
+     * virtual thread, so idle sessions only cost their memory and not a platform thread.
+     */
+    public void serve() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!serverSocket.isClosed()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    break;
+                }
+                SplittableRandom sessionRandom = random.split();
+                executor.submit(() -> handle(socket, sessionRandom));
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections.
+     */
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Plays games over one connection until the client disconnects.
+     * Responses are only flushed once every pipelined command has been read.
+     * @param socket the connection.
+     * @param sessionRandom the generator for the seeds of the session's games.
+     */
+    private void handle(Socket socket, SplittableRandom sessionRandom) {
+        sessions.incrementAndGet();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            GameSession session = new GameSession(cashValues.clone(), sessionRandom);
+            StringBuilder response = new StringBuilder(64);
+            String line;
+            while ((line = in.readLine()) != null) {
+                response.setLength(0);
+                session.execute(line, response);
+                out.append(response).append('\n');
+                if (!in.ready()) out.flush();
+            }
+        } catch (IOException ignored) {
+            // The client disconnected
+        } finally {
+            sessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs the server until it is stopped.
+     * @param args the port, and optionally custom briefcase values.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        if (args.length > 0) {
+            try {
+                port = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                Main.sendError(args[0] + " is not a port.");
+            }
+        }
+        if (args.length == 2) {
+            Main.sendError("Usage: java -cp DealOrNoDeal.jar GameServer <port> <Briefcase Values>");
+        }
+
+        // Use default values if no briefcase values are given
+        double[] arr;
+        if (args.length <= 1) {
+            arr = new double[]{0.01, 1.0, 5.0, 10.0, 25.0, 50.0, 75.0, 100.0, 200.0, 300.0, 400.0, 500.0, 750.0,
+                    1000.0, 5000.0, 10000.0, 25000.0, 50000.0, 75000.0, 100000.0, 200000.0, 300000.0, 400000.0,
+                    500000.0, 750000.0, 1000000.0};
+        } else {
+            arr = new double[args.length - 1];
+            for (int i = 0; i < arr.length; i++) {
+                try {
+                    arr[i] = Double.parseDouble(args[i + 1]);
+                    if (arr[i] < 0.0) {
+                        Main.sendError(args[i + 1] + " is a negative number.");
+                    }
+                } catch (NumberFormatException e) {
+                    Main.sendError(args[i + 1] + " is not a number.");
+                }
+            }
+        }
+
+        try {
+            GameServer server = new GameServer(arr, port);
+            GameMetrics.register();
+            System.out.println("Listening on port " + server.getPort());
+            server.serve();
+        } catch (IOException e) {
+            Main.sendError("Could not listen on port " + port + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+import java.util.SplittableRandom;
+
+public class GameSession {
+
+    /** Every command, so a command can be found without copying it out of the line. */
+    private static final String[] COMMANDS = {"new", "choose", "open", "deal", "nodeal", "no-deal", "swap", "keep", "stats"};
+
+    /** The board this session plays on. */
+    private final Briefcases game;
+    /** Index of the case the player chose, or -1 before one is chosen. */
+    private int chosenCase;
+    /** Flag that tracks if the game has ended with a deal or the final case. */
+    private boolean over;
+
+    /**
+     * Initialize the <code>GameSession</code> with a new game.
+     * @param moneyValues an array with the possible cash values in the cases.
+     */
+    public GameSession(double[] moneyValues) {
+        this(moneyValues, new SplittableRandom());
+    }
+
+    /**
+     * Initialize the <code>GameSession</code> with a new game.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param random the generator for the seeds of the games, used only by this session.
+     */
+    public GameSession(double[] moneyValues, SplittableRandom random) {
+        game = new Briefcases(moneyValues, random);
+        game.setSampleRate(1);
+        chosenCase = -1;
+    }
+
+    /**
+     * Initialize the <code>GameSession</code> on a board that has already been set up, such as one with a custom banker.
+     * Cases can be chosen right away in the board's current game.
+     * @param game the board, which keeps its own metrics sample rate.
+     */
+    public GameSession(Briefcases game) {
+        this.game = game;
+        chosenCase = -1;
+    }
+
+    /**
+     * Applies one text command to the game and writes a one-line response.
+     * Cases are numbered from 1, like on the board. The commands are
+     * "new", "new SEED", "choose N", "open N", "deal", "nodeal" (or "no-deal"), "swap", "keep" and "stats".
+     * The line is read in place, so no strings are made for the command or its argument.
+     * @param line the command.
+     * @param out the builder the response is appended to, without a line break.
+     */
+    public void execute(CharSequence line, StringBuilder out) {
+
+        // Find the command and its argument, leaving out the spaces and control characters around them
+        int start = 0;
+        int end = line.length();
+        while (start < end && line.charAt(start) <= ' ') start++;
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+        int space = start;
+        while (space < end && line.charAt(space) != ' ') space++;
+        int argument = space;
+        while (argument < end && line.charAt(argument) <= ' ') argument++;
+        String command = findCommand(line, start, space);
+
+        switch (command) {
+            case "new":
+                if (argument == end) {
+                    game.newGame();
+                } else {
+                    try {
+                        game.newGame(Long.parseLong(line, argument, end, 10));
+                    } catch (NumberFormatException e) {
+                        out.append("error not a seed");
+                        break;
+                    }
+                }
+                chosenCase = -1;
+                over = false;
+                out.append("ok ").append(game.size()).append(' ').append(game.getSeed());
+                break;
+            case "choose":
+                choose(parseCase(line, argument, end), out);
+                break;
+            case "open":
+                open(parseCase(line, argument, end), out);
+                break;
+            case "deal":
+                if (over || chosenCase < 0 || !game.dealOrNoDeal()) {
+                    out.append("error there is no offer");
+                    break;
+                }
+                game.caseOpened();
+                game.tookDeal();
+                over = true;
+                appendResult(out);
+                break;
+            case "nodeal":
+            case "no-deal":
+                if (over || chosenCase < 0 || !game.dealOrNoDeal()) {
+                    out.append("error there is no offer");
+                    break;
+                }
+                game.caseOpened();
+                out.append(game.isDone(2) ? "final" : "ok");
+                break;
+            case "swap":
+            case "keep":
+                finish(command.equals("swap"), out);
+                break;
+            case "stats":
+                long[] stats = game.getStatisticsCents();
+                for (int i = 0; i < stats.length; i++) {
+                    if (i > 0) out.append(' ');
+                    Money.append(out, stats[i]);
+                }
+                break;
+            default:
+                out.append("error unknown command");
+        }
+    }
+
+    /**
+     * Finds a command in a line.
+     * @param line the line.
+     * @param start the index of the first character of the command.
+     * @param end the index after the last character of the command.
+     * @return the command, or an empty string if it is not a command.
+     */
+    private static String findCommand(CharSequence line, int start, int end) {
+        for (String command : COMMANDS) {
+            if (command.length() != end - start) continue;
+            int i = 0;
+            while (i < command.length() && command.charAt(i) == line.charAt(start + i)) i++;
+            if (i == command.length()) return command;
+        }
+        return "";
+    }
+
+    /**
+     * Chooses the player's case.
+     * @param c the index of the case, or -1 if there is no such case.
+     * @param out the builder the response is appended to.
+     */
+    private void choose(int c, StringBuilder out) {
+        if (c < 0) {
+            out.append("error no such case");
+        } else if (over || chosenCase >= 0) {
+            out.append("error a case is already chosen");
+        } else {
+            chosenCase = c;
+            game.caseChosen(c);
+            out.append(game.isDone(2) ? "final" : "ok");
+        }
+    }
+
+    /**
+     * Opens a case and reports its cash value, followed by the offer if the round is over.
+     * @param c the index of the case, or -1 if there is no such case.
+     * @param out the builder the response is appended to.
+     */
+    private void open(int c, StringBuilder out) {
+        if (c < 0) {
+            out.append("error no such case");
+        } else if (over || chosenCase < 0 || game.dealOrNoDeal() || game.isDone(2)) {
+            out.append("error a case cannot be opened now");
+        } else if (c == chosenCase || game.isOpened(c)) {
+            out.append("error the case is already taken");
+        } else {
+            long cash = game.centsIn(c);
+            game.openCase(c);
+            Money.append(out, cash);
+            if (game.dealOrNoDeal()) {
+                out.append(" offer ");
+                Money.append(out, Money.ofDollars(game.getOffer()));
+            }
+        }
+    }
+
+    /**
+     * Ends the game with the chosen case or the other case left on the board.
+     * @param swap true to take the other case.
+     * @param out the builder the response is appended to.
+     */
+    private void finish(boolean swap, StringBuilder out) {
+        if (over || chosenCase < 0 || !game.isDone(2)) {
+            out.append("error it is not time for the final case");
+            return;
+        }
+        int c = chosenCase;
+        if (swap) {
+            for (int i = 0; i < game.size(); i++) {
+                if (i != chosenCase && !game.isOpened(i)) {
+                    c = i;
+                    break;
+                }
+            }
+        }
+        game.updateLastCase(c);
+        game.caseOpened();
+        over = true;
+        appendResult(out);
+    }
+
+    /**
+     * Parses a case number.
+     * @param line the line with the number of the case, starting from 1.
+     * @param start the index of the first digit.
+     * @param end the index after the last digit.
+     * @return the index of the case, or -1 if there is no such case.
+     */
+    private int parseCase(CharSequence line, int start, int end) {
+        try {
+            int c = Integer.parseInt(line, start, end, 10) - 1;
+            return (c >= 0 && c < game.size()) ? c : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Writes the earnings and possible earnings of the game that just ended.
+     * @param out the builder the response is appended to.
+     */
+    private void appendResult(StringBuilder out) {
+        long[] stats = game.getStatisticsCents();
+        out.append("won ");
+        Money.append(out, stats[0]);
+        out.append(" possible ");
+        Money.append(out, stats[1]);
+    }
+}
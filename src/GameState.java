@@ -0,0 +1,434 @@
+import java.util.Arrays;
+
+public class GameState {
+
+    /** Number of children of a node of the remaining values, and of words in a leaf. */
+    private static final int WIDTH = 32;
+    /** Number of bits of a word or child index taken by one level of the remaining values. */
+    private static final int SHIFT = 5;
+
+    /** Number of moves made on the board before this version, counting across games. */
+    private final long version;
+    /** Seed of the game's shuffle. */
+    private final long seed;
+    /** Array with all possible cash values (sorted), shared by every version. */
+    private final double[] cashValues;
+    /** Index in <code>cashValues</code> of each briefcase's cash, shared by every version of a game. */
+    private final int[] briefcases;
+    /** Array with the stages to make a deal or no deal, shared by every version. */
+    private final int[] stages;
+    /** Set bits for every index in <code>cashValues</code> that has not been opened, shared with the versions before it. */
+    private final Bits remaining;
+    /** Number of cases that have not been opened. */
+    private final int remainingCount;
+    /** Total money in the cases that have not been opened. */
+    private final double total;
+    /** Index in <code>cashValues</code> of the largest remaining cash value, or -1 if there is none. */
+    private final int maxIndex;
+    /** The chosen briefcase's index, or -1 if none has been chosen. */
+    private final int chosen;
+    /** Number of decisions made by the player, -1 before a case is chosen. */
+    private final int opened;
+    /** Index of the first stage in <code>stages</code> that has not been passed. */
+    private final int nextStage;
+    /** The banker's offer on the table, or NaN if there is none. */
+    private final double offer;
+    /** Earnings of the game in cents, once it has ended. */
+    private final long earnings;
+    /** Possible earnings of the game in cents, once it has ended. */
+    private final long possible;
+    /** Flag that tracks if a deal has been taken. */
+    private final boolean done;
+
+    /**
+     * Initialize the first version of a game, before a case is chosen.
+     * @param version the number of moves made on the board before this version.
+     * @param seed the seed of the game's shuffle.
+     * @param cashValues an array with all possible cash values (sorted), which must not change.
+     * @param briefcases the index in <code>cashValues</code> of each briefcase's cash, which must not change.
+     * @param stages the stages to make a deal or no deal, which must not change.
+     * @param remaining the bits of every cash value, all set.
+     */
+    GameState(long version, long seed, double[] cashValues, int[] briefcases, int[] stages, Bits remaining) {
+        this.version = version;
+        this.seed = seed;
+        this.cashValues = cashValues;
+        this.briefcases = briefcases;
+        this.stages = stages;
+        this.remaining = remaining;
+        remainingCount = cashValues.length;
+        double sum = 0.0;
+        for (double value : cashValues) {
+            sum += value;
+        }
+        total = sum;
+        maxIndex = cashValues.length - 1;
+        chosen = -1;
+        opened = -1;
+        nextStage = 0;
+        offer = Double.NaN;
+        earnings = 0;
+        possible = 0;
+        done = false;
+    }
+
+    /**
+     * Initialize the version after a move, sharing the board and everything that did not change with the version before it.
+     * @param previous the version before the move.
+     * @param remaining the remaining cash values after the move.
+     * @param remainingCount the number of cases that have not been opened.
+     * @param total the total money in the cases that have not been opened.
+     * @param maxIndex the index in <code>cashValues</code> of the largest remaining cash value, or -1 if there is none.
+     * @param chosen the chosen briefcase's index, or -1 if none has been chosen.
+     * @param opened the number of decisions made by the player.
+     * @param nextStage the index of the first stage that has not been passed.
+     * @param offer the banker's offer on the table, or NaN if there is none.
+     * @param earnings the earnings of the game in cents.
+     * @param possible the possible earnings of the game in cents.
+     * @param done true if a deal has been taken.
+     */
+    GameState(GameState previous, Bits remaining, int remainingCount, double total, int maxIndex, int chosen, int opened,
+              int nextStage, double offer, long earnings, long possible, boolean done) {
+        version = previous.version + 1;
+        seed = previous.seed;
+        cashValues = previous.cashValues;
+        briefcases = previous.briefcases;
+        stages = previous.stages;
+        this.remaining = remaining;
+        this.remainingCount = remainingCount;
+        this.total = total;
+        this.maxIndex = maxIndex;
+        this.chosen = chosen;
+        this.opened = opened;
+        this.nextStage = nextStage;
+        this.offer = offer;
+        this.earnings = earnings;
+        this.possible = possible;
+        this.done = done;
+    }
+
+    /**
+     * Accesses the number of moves made on the board before this version, so readers can tell if the board moved on.
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Accesses the seed of the game.
+     * @return the seed of the game's shuffle.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Accesses the total number of briefcases possible.
+     * @return the number of briefcases.
+     */
+    public int size() {
+        return briefcases.length;
+    }
+
+    /**
+     * Accesses a possible cash value.
+     * @param v the index of the value, in increasing order.
+     * @return cash value #v.
+     */
+    public double cashValue(int v) {
+        return cashValues[v];
+    }
+
+    /**
+     * Accesses the index of the cash in a case on the board.
+     * @param c is the index of the briefcase.
+     * @return the index of the cash value in case <code>c</code>.
+     */
+    public int valueIndexIn(int c) {
+        return briefcases[c];
+    }
+
+    /**
+     * Checks if a case on the board has been opened.
+     * @param c is the index of the briefcase.
+     * @return true if case <code>c</code> has been opened.
+     */
+    public boolean isOpened(int c) {
+        return !remaining.get(briefcases[c]);
+    }
+
+    /**
+     * Accesses the remaining cash values.
+     * @return a bitset with a set bit for every cash value that has not been opened.
+     */
+    public long[] getRemainingValues() {
+        return remaining.toArray();
+    }
+
+    /**
+     * Accesses the number of cases that have not been opened.
+     * @return the number of remaining cases.
+     */
+    public int getRemainingCount() {
+        return remainingCount;
+    }
+
+    /**
+     * Accesses the mean of the cash in the unopened cases.
+     * @return the mean of the remaining cash.
+     */
+    public double getMean() {
+        return total / remainingCount;
+    }
+
+    /**
+     * Accesses the largest remaining cash value.
+     * @return the largest cash value that has not been opened, or 0 if there is none.
+     */
+    public double getMaxRemaining() {
+        return (maxIndex < 0) ? 0.0 : cashValues[maxIndex];
+    }
+
+    /**
+     * Accesses the chosen briefcase.
+     * @return the index of the chosen briefcase, or -1 if none has been chosen.
+     */
+    public int getChosen() {
+        return chosen;
+    }
+
+    /**
+     * Check if it is time for a deal to occur.
+     * @return true if a deal is to happen.
+     */
+    public boolean dealOrNoDeal() {
+        return nextStage < stages.length && stages[nextStage] == opened;
+    }
+
+    /**
+     * Accesses the banker's offer on the table.
+     * @return the offer, or NaN if there is none.
+     */
+    public double getOffer() {
+        return offer;
+    }
+
+    /**
+     * Checks if the game is a number of steps from ending.
+     * @param option the number of steps from ending.
+     * @return true if the game is <code>option</code> steps from ending.
+     */
+    public boolean isDone(int option) {
+        return opened == (briefcases.length + stages.length) - option;
+    }
+
+    /**
+     * Checks if the game has ended, with a deal or with the final case.
+     * @return true if the game is over.
+     */
+    public boolean isOver() {
+        return done || isDone(1);
+    }
+
+    /**
+     * Accesses the earnings of the game, once it is over.
+     * @return the earnings in cents.
+     */
+    public long getEarnings() {
+        return earnings;
+    }
+
+    /**
+     * Accesses the possible earnings of the game, once it is over.
+     * @return the possible earnings in cents.
+     */
+    public long getPossible() {
+        return possible;
+    }
+
+    /**
+     * Accesses the length of the <code>stages</code>
+     * array (number of times a deal is offered).
+     * @return the number of times a deal is offered.
+     */
+    public int numStages() {
+        return stages.length;
+    }
+
+    /**
+     * Calculates the number of cases opened in the round before a stage's offer.
+     * @param stage the index of the stage in the <code>stages</code> array.
+     * @return the number of cases opened before the offer.
+     */
+    public int casesInRound(int stage) {
+        return (stage == 0) ? stages[0] : stages[stage] - stages[stage - 1] - 1;
+    }
+
+    /**
+     * Calculates the number of cases to be removed during a regular round.
+     * @return the number of cases to be removed.
+     */
+    public int calculateInstruction() {
+        int i = (nextStage < stages.length && stages[nextStage] == opened) ? nextStage + 1 : nextStage;
+        return (i < stages.length) ? stages[i] - opened : -1;
+    }
+
+    /**
+     * Persistent bitset of the remaining cash values. It is a tree of 32 way nodes over leaves of
+     * 32 words, and clearing a bit only copies the path to its leaf, so each version of a game
+     * shares every other leaf with the versions before it.
+     */
+    static class Bits {
+
+        /** Root of the tree, a <code>long[]</code> leaf if there is only one, otherwise an <code>Object[]</code> node. */
+        private final Object root;
+        /** Number of levels of nodes above the leaves. */
+        private final int depth;
+
+        /**
+         * Initialize a bitset with the same bits as an array.
+         * @param words the bits, 64 to a word.
+         */
+        Bits(long[] words) {
+            this.depth = depthOf(words.length);
+            this.root = build(words, 0, depth);
+        }
+
+        /**
+         * Initialize a bitset that has a new root.
+         * @param root the root of the tree.
+         * @param depth the number of levels of nodes above the leaves.
+         */
+        private Bits(Object root, int depth) {
+            this.root = root;
+            this.depth = depth;
+        }
+
+        /**
+         * Calculates the number of levels of nodes needed above the leaves.
+         * @param words the number of words.
+         * @return the number of levels.
+         */
+        private static int depthOf(int words) {
+            int depth = 0;
+            for (long capacity = WIDTH; capacity < words; capacity *= WIDTH) {
+                depth++;
+            }
+            return depth;
+        }
+
+        /**
+         * Builds the part of the tree that holds a range of words.
+         * @param words the bits, 64 to a word.
+         * @param first the index of the first word in the range.
+         * @param level the number of levels of nodes above the leaves.
+         * @return the leaf or node.
+         */
+        private static Object build(long[] words, int first, int level) {
+            if (level == 0) {
+                return Arrays.copyOfRange(words, first, Math.min(words.length, first + WIDTH));
+            }
+            int span = 1 << (SHIFT * level);
+            int children = Math.min(WIDTH, (words.length - first + span - 1) / span);
+            Object[] node = new Object[children];
+            for (int i = 0; i < children; i++) {
+                node[i] = build(words, first + i * span, level - 1);
+            }
+            return node;
+        }
+
+        /**
+         * Checks a bit.
+         * @param v the index of the bit.
+         * @return true if the bit is set.
+         */
+        boolean get(int v) {
+            return (word(v >>> 6) & (1L << v)) != 0;
+        }
+
+        /**
+         * Accesses a word of the bits.
+         * @param w the index of the word.
+         * @return the word.
+         */
+        private long word(int w) {
+            Object node = root;
+            for (int level = depth; level > 0; level--) {
+                node = ((Object[]) node)[(w >>> (SHIFT * level)) & (WIDTH - 1)];
+            }
+            return ((long[]) node)[w & (WIDTH - 1)];
+        }
+
+        /**
+         * Clears a bit, copying only the path to its leaf.
+         * @param v the index of the bit.
+         * @return the bitset with the bit cleared, which is this bitset if it was already clear.
+         */
+        Bits clear(int v) {
+            return (get(v)) ? new Bits(clear(root, depth, v >>> 6, 1L << v), depth) : this;
+        }
+
+        /**
+         * Copies the path to a word with a bit cleared.
+         * @param node the leaf or node on the path.
+         * @param level the number of levels of nodes above the leaves.
+         * @param w the index of the word.
+         * @param mask the bit in the word.
+         * @return the copy of the leaf or node.
+         */
+        private static Object clear(Object node, int level, int w, long mask) {
+            if (level == 0) {
+                long[] leaf = ((long[]) node).clone();
+                leaf[w & (WIDTH - 1)] &= ~mask;
+                return leaf;
+            }
+            Object[] copy = ((Object[]) node).clone();
+            int i = (w >>> (SHIFT * level)) & (WIDTH - 1);
+            copy[i] = clear(copy[i], level - 1, w, mask);
+            return copy;
+        }
+
+        /**
+         * Copies the bits into an array.
+         * @return the bits, 64 to a word.
+         */
+        long[] toArray() {
+            int words = count(root, depth);
+            long[] array = new long[words];
+            copy(root, depth, array, 0);
+            return array;
+        }
+
+        /**
+         * Counts the words under a leaf or node.
+         * @param node the leaf or node.
+         * @param level the number of levels of nodes above the leaves.
+         * @return the number of words.
+         */
+        private static int count(Object node, int level) {
+            if (level == 0) return ((long[]) node).length;
+            Object[] children = (Object[]) node;
+            return (children.length - 1) * (1 << (SHIFT * level)) + count(children[children.length - 1], level - 1);
+        }
+
+        /**
+         * Copies the words under a leaf or node into an array.
+         * @param node the leaf or node.
+         * @param level the number of levels of nodes above the leaves.
+         * @param array the array.
+         * @param first the index in the array of the first word under the leaf or node.
+         */
+        private static void copy(Object node, int level, long[] array, int first) {
+            if (level == 0) {
+                long[] leaf = (long[]) node;
+                System.arraycopy(leaf, 0, array, first, leaf.length);
+                return;
+            }
+            Object[] children = (Object[]) node;
+            for (int i = 0; i < children.length; i++) {
+                copy(children[i], level - 1, array, first + i * (1 << (SHIFT * level)));
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("dealornodeal.HotPath")
+@Label("Hot Path")
+@Category("Deal or No Deal")
+@Description("A call to one of the game's hot paths, such as a repaint or an offer.")
+@StackTrace(false)
+public class HotPathEvent extends jdk.jfr.Event {
+
+    /** Name of the operation that was timed. */
+    @Label("Operation")
+    public String operation;
+
+    /** Time the operation took. */
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long time;
+}
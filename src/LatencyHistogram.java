@@ -0,0 +1,114 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    /** Number of buckets for each power of 2, which keeps the error of a recorded value under 2%. */
+    private static final int SUB_BUCKETS = 64;
+    /** log2 of <code>SUB_BUCKETS</code>. */
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /** Number of values recorded in each bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    /** Number of values recorded. */
+    private final AtomicLong count = new AtomicLong();
+    /** Sum of the values recorded. */
+    private final AtomicLong sum = new AtomicLong();
+    /** Largest value recorded. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Safe to call from many threads at once.
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        long previous = max.get();
+        while (nanos > previous && !max.compareAndSet(previous, nanos)) {
+            previous = max.get();
+        }
+    }
+
+    /**
+     * Accesses the number of values recorded.
+     * @return the number of values.
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Accesses the mean of the values recorded.
+     * @return the mean latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double mean() {
+        long n = count.get();
+        return (n == 0) ? 0.0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Accesses the largest value recorded.
+     * @return the largest latency in nanoseconds.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Finds a percentile of the values recorded.
+     * @param percentile the percentile, from 0 to 100.
+     * @return the smallest bucket value that at least <code>percentile</code>% of the values are in or under.
+     */
+    public long percentile(double percentile) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(highestValue(i), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears the values recorded.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Finds the bucket of a value. Small values get a bucket each, and larger
+     * values share <code>SUB_BUCKETS</code> buckets for each power of 2.
+     * @param value the value.
+     * @return the index of the bucket.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Finds the largest value in a bucket.
+     * @param bucket the index of the bucket.
+     * @return the largest value that is recorded in the bucket.
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lowest = (1L << exponent) | (sub << (exponent - SUB_BUCKET_BITS));
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,160 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadGenerator {
+
+    /** Port of the <code>GameServer</code>. */
+    private final int port;
+    /** Latency of every command sent. */
+    private final LatencyHistogram latency = new LatencyHistogram();
+    /** Number of games finished. */
+    private final LongAdder games = new LongAdder();
+    /** Number of connections that failed. */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Initialize the <code>LoadGenerator</code>.
+     * @param port the port of the <code>GameServer</code> on the loopback address.
+     */
+    public LoadGenerator(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Opens connections that play games, plus connections that stay idle until the others are done.
+     * @param connections the number of connections that play.
+     * @param gamesPerConnection the number of games each connection plays.
+     * @param idleConnections the number of connections that only stay open.
+     * @return the elapsed time in nanoseconds.
+     */
+    public long run(int connections, int gamesPerConnection, int idleConnections) {
+        ArrayList<Socket> idle = new ArrayList<>();
+        for (int i = 0; i < idleConnections; i++) {
+            try {
+                idle.add(new Socket(InetAddress.getLoopbackAddress(), port));
+            } catch (IOException e) {
+                failures.increment();
+            }
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                executor.submit(() -> play(gamesPerConnection));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Socket socket : idle) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+        return elapsed;
+    }
+
+    /**
+     * Plays games over one connection, always keeping case 1, opening the others
+     * in order and saying "No Deal", so every game sends the same commands.
+     * @param gamesPerConnection the number of games to play.
+     */
+    private void play(int gamesPerConnection) {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            for (int g = 0; g < gamesPerConnection; g++) {
+                String response = send(in, out, "new");
+                int size = Integer.parseInt(response.split(" ")[1]);
+                response = send(in, out, "choose 1");
+                int next = 2;
+                while (!response.startsWith("final")) {
+                    if (response.startsWith("error")) {
+                        throw new IOException(response);
+                    }
+                    if (response.contains("offer")) {
+                        response = send(in, out, "nodeal");
+                    } else if (next <= size) {
+                        response = send(in, out, "open " + next++);
+                    } else {
+                        throw new IOException("The game did not reach the final case.");
+                    }
+                }
+                send(in, out, "keep");
+                games.increment();
+            }
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Sends a command and times how long the response takes.
+     * @param in the reader for the responses.
+     * @param out the writer for the commands.
+     * @param command the command.
+     * @return the response.
+     * @throws IOException if the connection is lost.
+     */
+    private String send(BufferedReader in, BufferedWriter out, String command) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String response = in.readLine();
+        latency.record(System.nanoTime() - start);
+        if (response == null) {
+            throw new IOException("The server closed the connection.");
+        }
+        return response;
+    }
+
+    /**
+     * Runs the load against a <code>GameServer</code> and prints the throughput and latency.
+     * @param args the port, the number of connections, the games per connection, and optionally the number of idle connections.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3 || args.length > 4) {
+            Main.sendError("Usage: java -cp DealOrNoDeal.jar LoadGenerator <port> <connections> <games> <idle connections>");
+        }
+        int[] settings = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            try {
+                settings[i] = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+                Main.sendError(args[i] + " is not a number.");
+            }
+        }
+        int idleConnections = (args.length == 4) ? settings[3] : 0;
+
+        LoadGenerator generator = new LoadGenerator(settings[0]);
+        long elapsed = generator.run(settings[1], settings[2], idleConnections);
+        double seconds = elapsed / 1e9;
+
+        // Print the results
+        DecimalFormat formatter = new DecimalFormat("#,##0.00");
+        LatencyHistogram latency = generator.latency;
+        System.out.println("Connections: " + settings[1] + " playing, " + idleConnections + " idle");
+        System.out.println("Failed connections: " + generator.failures.sum());
+        System.out.println("Games: " + generator.games.sum());
+        System.out.println("Games/second: " + formatter.format(generator.games.sum() / seconds));
+        System.out.println("Moves/second: " + formatter.format(latency.count() / seconds));
+        System.out.println("Mean move latency: " + formatter.format(latency.mean() / 1e3) + " us");
+        System.out.println("p50 move latency: " + formatter.format(latency.percentile(50) / 1e3) + " us");
+        System.out.println("p99 move latency: " + formatter.format(latency.percentile(99) / 1e3) + " us");
+        System.out.println("p99.9 move latency: " + formatter.format(latency.percentile(99.9) / 1e3) + " us");
+        System.out.println("Max move latency: " + formatter.format(latency.max() / 1e3) + " us");
+    }
+}
@@ -6,31 +6,83 @@
  * Originally verified by: <code>Neil Wan</code>
  */
 
+import java.awt.EventQueue;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
 public class Main {
 
+    /** How to run the game. */
+    private static final String USAGE = "Usage: java -jar DealOrNoDeal.jar [--batch] [--banker=bradley|table|stage] [--values=File] [totalEarnings] [totalPossibleEarnings] <Briefcase Values>";
+
+    /** Size of the buffers of the commands and responses in batch mode. */
+    private static final int BATCH_BUFFER_SIZE = 1 << 16;
+
     /**
-     * Plays the GUI for the game "Deal or No Deal".
+     * Plays the GUI for the game "Deal or No Deal", or plays the commands from the standard input in batch mode.
      * @param args can be used to make a game with a custom board.
      */
     public static void main(String[] args) {
 
-        // Array with Doubles with the possible values in the briefcases
-        Double[] arr;
+        // Take the mode, the name of the banker and the values file from the first arguments if they are given
+        boolean batch = false;
+        String bankerName = "bradley";
+        String valuesFile = null;
+        while (args.length > 0 && args[0].startsWith("--")) {
+            if (args[0].equals("--batch")) {
+                batch = true;
+            } else if (args[0].startsWith("--banker=")) {
+                bankerName = args[0].substring("--banker=".length());
+            } else if (args[0].startsWith("--values=")) {
+                valuesFile = args[0].substring("--values=".length());
+            } else {
+                sendError(USAGE);
+            }
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+
+        // Load the GUI classes, decode the images, and register the metrics in the background while the board is set up
+        if (!batch) {
+            CompletableFuture.runAsync(() -> RenderCache.preload(GUI.IMAGES));
+            CompletableFuture.runAsync(GameMetrics::register);
+        }
+
+        // Array of doubles with the possible values in the briefcases
+        double[] arr = null;
 
-        // Use default values if no arguments are given or only statistics arguments are given
-        if (args.length == 0 || args.length == 2) {
-            arr = new Double[]{0.01, 1.0, 5.0, 10.0, 25.0, 50.0, 75.0, 100.0, 200.0, 300.0, 400.0, 500.0, 750.0,
+        // Read the values from the file if one is given, which only leaves room for the statistics arguments
+        if (valuesFile != null) {
+            if (args.length != 0 && args.length != 2) {
+                sendError(USAGE);
+            }
+            try {
+                arr = ValuesFile.read(Paths.get(valuesFile));
+            } catch (IOException e) {
+                sendError("Could not read the values file: " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                sendError(e.getMessage());
+            }
+        } else if (args.length == 0 || args.length == 2) {
+
+            // Use default values if no arguments are given or only statistics arguments are given
+            arr = new double[]{0.01, 1.0, 5.0, 10.0, 25.0, 50.0, 75.0, 100.0, 200.0, 300.0, 400.0, 500.0, 750.0,
                     1000.0, 5000.0, 10000.0, 25000.0, 50000.0, 75000.0, 100000.0, 200000.0, 300000.0, 400000.0,
                     500000.0, 750000.0, 1000000.0};
         } else {
 
             // Ensure there is not only one argument or three arguments
             if (args.length == 1 || args.length == 3) {
-                sendError("Usage: java -jar DealOrNoDeal.jar [totalEarnings] [totalPossibleEarnings] <Briefcase Values>");
+                sendError(USAGE);
             }
 
             // Create array with appropriate length
-            arr = new Double[args.length - 2];
+            arr = new double[args.length - 2];
 
             // Initialize array with arguments
             for (int i = 0; i < args.length - 2; i++) {
@@ -51,9 +103,34 @@ public class Main {
             }
         }
 
+        // Open the statistics journal in the background while the board is set up, but leave it out of scripted games
+        String journalFile = batch ? "" : System.getProperty("journal", StatsJournal.DEFAULT_FILE);
+        CompletableFuture<StatsJournal> openJournal = CompletableFuture.supplyAsync(() -> {
+            if (journalFile.isEmpty()) return null;
+            try {
+                return new StatsJournal(Paths.get(journalFile));
+            } catch (IOException e) {
+                System.err.println("Could not open the statistics journal: " + e.getMessage());
+                return null;
+            }
+        });
+
         // Make a new Briefcases object that will contain the game
         Briefcases briefcases = new Briefcases(arr);
 
+        // Make the banker, with any tables built for this board
+        try {
+            briefcases.setBanker(Banker.create(bankerName, briefcases));
+        } catch (IllegalArgumentException e) {
+            sendError(e.getMessage());
+        }
+
+        // Restore the totals of earlier sessions from the statistics journal
+        StatsJournal journal = openJournal.join();
+        if (journal != null) {
+            briefcases.updateStatisticsCents(journal.getTotals());
+        }
+
         // If two arguments are given
         if (args.length == 2) {
 
@@ -72,15 +149,118 @@ public class Main {
                 sendError(args[1] + " is not a number.");
             }
 
-            // Update the total game statistics with the previous statistics
-            briefcases.updateStatistics(previousStats);
+            // Update the total game statistics with the previous statistics, unless the journal already has them
+            if (journal != null) {
+                if (previousStats[0] != 0.0 || previousStats[1] != 0.0) {
+                    System.err.println("The totals of earlier sessions come from the statistics journal, so the totals given as arguments are ignored.");
+                }
+            } else {
+                briefcases.updateStatistics(previousStats);
+            }
         }
 
-        // Make a new GUI object to render the game in briefcases
-        GUI gui = new GUI(briefcases);
+        // Log the events of every game if a log file is given
+        String logFile = System.getProperty("gamelog", "");
+        if (!logFile.isEmpty()) {
+            try {
+                GameLog log = GameLog.open(Paths.get(logFile), briefcases.cashValues);
+                briefcases.setLog(log);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        log.close();
+                    } catch (IOException e) {
+                        System.err.println("Could not write the game log: " + e.getMessage());
+                    }
+                }));
+            } catch (IOException e) {
+                System.err.println("Could not open the game log: " + e.getMessage());
+            }
+        }
+
+        // Play the commands from the standard input without a display in batch mode
+        if (batch) {
+            playBatch(briefcases);
+            return;
+        }
 
-        // Display the game with the GUI
-        gui.displayGame();
+        // Make a new GUI object to render the game in briefcases and display it, on the event dispatch thread
+        EventQueue.invokeLater(() -> {
+            GUI gui = new GUI(briefcases, journal);
+            gui.displayGame();
+        });
+    }
+
+    /**
+     * Plays the commands from the standard input, one per line, until it ends, and writes one response line for each,
+     * with the commands and responses of the game server. The commands and responses are ASCII, so the commands
+     * are read in place in the input buffer and the responses copied straight into the output buffer, instead of
+     * going through readers and writers. The responses are only written once every command that has arrived
+     * has been played, so a script piped in is played at full speed, while a program that waits for each response
+     * still gets it.
+     * @param briefcases the board to play on.
+     */
+    private static void playBatch(Briefcases briefcases) {
+        GameSession session = new GameSession(briefcases);
+        try (FileInputStream in = new FileInputStream(FileDescriptor.in);
+             FileOutputStream out = new FileOutputStream(FileDescriptor.out)) {
+            AsciiLine command = new AsciiLine(new byte[BATCH_BUFFER_SIZE]);
+            StringBuilder response = new StringBuilder(64);
+            char[] chars = new char[64];
+            byte[] output = new byte[BATCH_BUFFER_SIZE];
+            int written = 0;
+            int filled = 0;
+            while (true) {
+
+                // Write the responses before waiting for more commands
+                if (written > 0) {
+                    out.write(output, 0, written);
+                    written = 0;
+                }
+
+                // Move the unfinished command to the front of the buffer, growing the buffer if it fills it
+                byte[] input = command.bytes;
+                filled -= command.start;
+                System.arraycopy(input, command.start, input, 0, filled);
+                command.start = 0;
+                if (filled == input.length) {
+                    command.bytes = input = Arrays.copyOf(input, input.length * 2);
+                }
+                int read = in.read(input, filled, input.length - filled);
+
+                // The end of the input ends the last command if it has no line break
+                if (read < 0) {
+                    if (filled == 0) break;
+                    input[filled] = '\n';
+                    read = 1;
+                }
+
+                // Play the commands that end in the bytes that were read
+                for (int i = filled; i < filled + read; i++) {
+                    if (input[i] != '\n') continue;
+                    command.end = i;
+                    response.setLength(0);
+                    session.execute(command, response);
+                    command.start = i + 1;
+
+                    // Copy the response into the output buffer, writing the buffer first if it is full
+                    int length = response.length();
+                    if (length > chars.length) chars = new char[length];
+                    if (written + length + 1 > output.length) {
+                        out.write(output, 0, written);
+                        written = 0;
+                        if (length + 1 > output.length) output = new byte[length + 1];
+                    }
+                    response.getChars(0, length, chars, 0);
+                    for (int j = 0; j < length; j++) {
+                        output[written++] = (byte) chars[j];
+                    }
+                    output[written++] = '\n';
+                }
+                filled += read;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not play the commands: " + e.getMessage());
+        }
     }
 
     /**
@@ -92,4 +272,60 @@ public class Main {
         System.out.println("\0");
         System.exit(0);
     }
-}
\ No newline at end of file
+
+    /**
+     * A line of ASCII text read in place in a buffer of bytes, without copying it into a string.
+     */
+    private static class AsciiLine implements CharSequence {
+
+        /** The buffer the line is in. */
+        private byte[] bytes;
+        /** Index of the first byte of the line. */
+        private int start;
+        /** Index after the last byte of the line. */
+        private int end;
+
+        /**
+         * Initialize the <code>AsciiLine</code> as an empty line at the start of a buffer.
+         * @param bytes the buffer.
+         */
+        private AsciiLine(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Accesses the length of the line.
+         * @return the number of characters.
+         */
+        public int length() {
+            return end - start;
+        }
+
+        /**
+         * Accesses a character of the line.
+         * @param index the index of the character.
+         * @return the character.
+         */
+        public char charAt(int index) {
+            return (char) (bytes[start + index] & 0xFF);
+        }
+
+        /**
+         * Copies part of the line.
+         * @param from the index of the first character.
+         * @param to the index after the last character.
+         * @return the characters.
+         */
+        public CharSequence subSequence(int from, int to) {
+            return new String(bytes, start + from, to - from, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * Copies the line.
+         * @return the line.
+         */
+        public String toString() {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
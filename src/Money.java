@@ -0,0 +1,100 @@
+public class Money {
+
+    /** Number of cents in a dollar. */
+    public static final long CENTS = 100;
+
+    /**
+     * Should not be instantiated.
+     */
+    private Money() {
+    }
+
+    /**
+     * Converts dollars to a whole number of cents, rounding to the nearest cent.
+     * @param dollars the amount in dollars.
+     * @return the amount in cents.
+     */
+    public static long ofDollars(double dollars) {
+        return Math.round(dollars * CENTS);
+    }
+
+    /**
+     * Converts cents to dollars.
+     * @param cents the amount in cents.
+     * @return the amount in dollars.
+     */
+    public static double toDollars(long cents) {
+        return (double) cents / CENTS;
+    }
+
+    /**
+     * Divides an amount, rounding to the nearest cent, such as to find the average of a total.
+     * @param cents the amount in cents.
+     * @param divisor the number to divide by.
+     * @return the amount divided, in cents.
+     */
+    public static long divide(long cents, long divisor) {
+        return Math.round((double) cents / divisor);
+    }
+
+    /**
+     * Writes an amount as plain dollars and cents, such as "-1234.50", without creating any objects.
+     * @param out the builder the amount is appended to.
+     * @param cents the amount in cents.
+     * @return the builder.
+     */
+    public static StringBuilder append(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        long remainder = cents % CENTS;
+        out.append(cents / CENTS).append('.');
+        if (remainder < 10) out.append('0');
+        return out.append(remainder);
+    }
+
+    /**
+     * Writes an amount as dollars with a comma between every three digits and cents,
+     * such as "1,234.50", without creating any objects.
+     * @param out the builder the amount is appended to.
+     * @param cents the amount in cents.
+     * @return the builder.
+     */
+    public static StringBuilder appendGrouped(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        long dollars = cents / CENTS;
+
+        // Write the dollars from the highest group of three digits down
+        long group = 1;
+        while (group <= dollars / 1000) {
+            group *= 1000;
+        }
+        out.append(dollars / group);
+        while (group > 1) {
+            dollars %= group;
+            group /= 1000;
+            long digits = dollars / group;
+            out.append(',');
+            if (digits < 100) out.append('0');
+            if (digits < 10) out.append('0');
+            out.append(digits);
+        }
+        long remainder = cents % CENTS;
+        out.append('.');
+        if (remainder < 10) out.append('0');
+        return out.append(remainder);
+    }
+
+    /**
+     * Formats an amount for display, such as "1,234.50".
+     * @param cents the amount in cents.
+     * @return the formatted amount.
+     */
+    public static String format(long cents) {
+        return appendGrouped(new StringBuilder(32), cents).toString();
+    }
+}
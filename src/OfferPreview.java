@@ -0,0 +1,209 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class OfferPreview {
+
+    /** Largest number of ways to open the rest of the round that are all checked exactly. */
+    private static final int EXACT_LIMIT = 20000;
+    /** Number of random ways to open the rest of the round that are checked when there are too many to check exactly. */
+    private static final int SAMPLES = 20000;
+    /** Number of random ways checked by each call of <code>step()</code>. */
+    private static final int BATCH = 1000;
+
+    /** Version of the board the preview is for. */
+    private final GameState state;
+    /** The banker that makes the offers. */
+    private final Banker banker;
+    /** Indices of the remaining cash values, in increasing order. */
+    private final int[] positions;
+    /** Working copy of <code>positions</code> that is shuffled to sample the opened cases. */
+    private final int[] shuffled;
+    /** ith element is true while cash value #i is one of the cases opened in the outcome being checked. */
+    private final boolean[] taken;
+    /** Number of cases left to open before the next offer. */
+    private final int toOpen;
+    /** Index of the stage of the next offer. */
+    private final int stage;
+    /** Total of the remaining cash values. */
+    private final double total;
+    /** Offer the next offer is compared with. */
+    private final double baseline;
+    /** Flag that tracks if every outcome of the round is checked, instead of a sample. */
+    private final boolean exact;
+    /** Next offer of every outcome checked so far. */
+    private final double[] outcomes;
+    /** Number of outcomes checked so far. */
+    private int count;
+    /** Number of outcomes checked so far with a next offer larger than <code>baseline</code>. */
+    private int higher;
+    /** Smallest next offer checked so far. */
+    private double min = Double.POSITIVE_INFINITY;
+    /** Largest next offer checked so far. */
+    private double max = Double.NEGATIVE_INFINITY;
+    /** Random number generator to pick outcomes, seeded so previews are repeatable. */
+    private final SplittableRandom random = new SplittableRandom(0);
+
+    /**
+     * Initialize the <code>OfferPreview</code> from a version of the board in the middle of a round.
+     * The version never changes, so the preview can be made and run on another thread while the game goes on.
+     * @param state the version of the board, with a chosen case and cases left to open before the next offer.
+     * @param banker the banker that makes the offers.
+     * @param lastOffer the offer the next offer is compared with, or NaN to compare with the offer for the current cash.
+     */
+    public OfferPreview(GameState state, Banker banker, double lastOffer) {
+        this.state = state;
+        this.banker = banker;
+        toOpen = state.calculateInstruction();
+        if (toOpen <= 0 || state.dealOrNoDeal()) {
+            throw new IllegalArgumentException("The board is not in the middle of a round.");
+        }
+
+        // List the remaining cash values
+        long[] remaining = state.getRemainingValues();
+        int n = 0;
+        for (long bits : remaining) {
+            n += Long.bitCount(bits);
+        }
+        positions = new int[n];
+        int p = 0;
+        double sum = 0.0;
+        for (int word = 0; word < remaining.length; word++) {
+            for (long bits = remaining[word]; bits != 0; bits &= bits - 1) {
+                positions[p] = word * 64 + Long.numberOfTrailingZeros(bits);
+                sum += state.cashValue(positions[p++]);
+            }
+        }
+        total = sum;
+        shuffled = positions.clone();
+        taken = new boolean[state.size()];
+
+        // Find the stage that is offered once the round's cases are opened
+        int left = state.size();
+        int next = 0;
+        for (int i = 0; i < state.numStages(); i++) {
+            left -= state.casesInRound(i);
+            if (left == n - toOpen) next = i;
+        }
+        stage = next;
+
+        baseline = Double.isNaN(lastOffer) ? banker.offer(total, n, state.cashValue(positions[n - 1]), stage) : lastOffer;
+        long ways = Solver.combinations(n, toOpen, EXACT_LIMIT);
+        exact = ways <= EXACT_LIMIT;
+        outcomes = new double[(exact) ? (int) ways : SAMPLES];
+    }
+
+    /**
+     * Checks more outcomes of the round. Every outcome is checked in one step
+     * when there are few enough, otherwise another batch of random outcomes is checked.
+     * @return true if there are more outcomes to check.
+     */
+    public boolean step() {
+        if (isFinished()) {
+            return false;
+        } else if (exact) {
+            enumerate();
+        } else {
+            int end = Math.min(SAMPLES, count + BATCH);
+            while (count < end) {
+                sample();
+            }
+        }
+        return !isFinished();
+    }
+
+    /**
+     * Checks if every outcome that will be checked has been.
+     * @return true if the distribution is final.
+     */
+    public boolean isFinished() {
+        return count == outcomes.length;
+    }
+
+    /**
+     * Checks if every outcome of the round is checked, instead of a sample.
+     * @return true if the distribution is exact.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Summarizes the distribution of the next offer over the outcomes checked so far.
+     * @return an array with the smallest, median and largest next offer, the probability
+     * that it is larger than the last offer, and the number of outcomes checked.
+     */
+    public double[] getDistribution() {
+        if (count == 0) {
+            return new double[]{Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0};
+        }
+        double[] sorted = Arrays.copyOf(outcomes, count);
+        Arrays.sort(sorted);
+        double median = (count % 2 == 1) ? sorted[count / 2] : (sorted[count / 2 - 1] + sorted[count / 2]) / 2.0;
+        return new double[]{min, median, max, (double) higher / count, count};
+    }
+
+    /**
+     * Checks every way to open the rest of the round's cases.
+     */
+    private void enumerate() {
+        int[] index = new int[toOpen];
+        for (int i = 0; i < toOpen; i++) {
+            index[i] = i;
+        }
+        while (true) {
+            double takenTotal = 0.0;
+            for (int i : index) {
+                taken[positions[i]] = true;
+                takenTotal += state.cashValue(positions[i]);
+            }
+            record(takenTotal);
+            for (int i : index) {
+                taken[positions[i]] = false;
+            }
+
+            // Move to the next combination
+            int i = toOpen - 1;
+            while (i >= 0 && index[i] == positions.length - toOpen + i) i--;
+            if (i < 0) break;
+            index[i]++;
+            for (int j = i + 1; j < toOpen; j++) {
+                index[j] = index[j - 1] + 1;
+            }
+        }
+    }
+
+    /**
+     * Checks one random way to open the rest of the round's cases (partial Fisher-Yates).
+     */
+    private void sample() {
+        int n = shuffled.length;
+        double takenTotal = 0.0;
+        for (int i = 0; i < toOpen; i++) {
+            int j = i + random.nextInt(n - i);
+            int position = shuffled[j];
+            shuffled[j] = shuffled[i];
+            shuffled[i] = position;
+            taken[position] = true;
+            takenTotal += state.cashValue(position);
+        }
+        record(takenTotal);
+        for (int i = 0; i < toOpen; i++) {
+            taken[shuffled[i]] = false;
+        }
+    }
+
+    /**
+     * Adds the next offer of the outcome marked in <code>taken</code> to the distribution.
+     * The largest cash value left is found from the top, which is usually only a few steps.
+     * @param takenTotal the total of the cash values opened in the outcome.
+     */
+    private void record(double takenTotal) {
+        int top = positions.length - 1;
+        while (taken[positions[top]]) top--;
+        double offer = banker.offer(total - takenTotal, positions.length - toOpen, state.cashValue(positions[top]), stage);
+        outcomes[count++] = offer;
+        if (offer > baseline) higher++;
+        min = Math.min(min, offer);
+        max = Math.max(max, offer);
+    }
+}
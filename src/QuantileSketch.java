@@ -0,0 +1,128 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class QuantileSketch {
+
+    /** Number of values recorded in each bucket, with the buckets of <code>LatencyHistogram</code>, grown as needed. */
+    private long[] counts = new long[0];
+    /** Number of values recorded. */
+    private long count;
+    /** Sum of the values recorded. */
+    private long sum;
+    /** Largest value recorded. */
+    private long max;
+
+    /**
+     * Records a value. Values are kept in buckets with an error under 2%,
+     * so the sketch has the same size no matter how many values it holds.
+     * @param value the value, such as an amount in cents. Negative values are recorded as 0.
+     */
+    public void add(long value) {
+        if (value < 0) value = 0;
+        int bucket = LatencyHistogram.bucket(value);
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, bucket + 1);
+        }
+        counts[bucket]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values of another sketch, as if they had been recorded in this one.
+     * @param other the other sketch.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Accesses the number of values recorded.
+     * @return the number of values.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Accesses the mean of the values recorded.
+     * @return the mean, or 0 if nothing was recorded.
+     */
+    public double mean() {
+        return (count == 0) ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Finds a quantile of the values recorded, by walking the buckets instead of the values.
+     * @param quantile the quantile, from 0 to 1.
+     * @return the smallest bucket value that at least that fraction of the values are in or under.
+     */
+    public long quantile(double quantile) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(count * quantile));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(LatencyHistogram.highestValue(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Writes the sketch, leaving out the empty buckets.
+     * @param out the output to write to.
+     * @throws IOException if the output cannot be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(sum);
+        out.writeLong(max);
+        int buckets = 0;
+        for (long c : counts) {
+            if (c != 0) buckets++;
+        }
+        out.writeInt(buckets);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a sketch written by <code>write</code>.
+     * @param in the input to read from.
+     * @return the sketch.
+     * @throws IOException if the input cannot be read or is not a sketch.
+     */
+    public static QuantileSketch read(DataInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.count = in.readLong();
+        sketch.sum = in.readLong();
+        sketch.max = in.readLong();
+        int buckets = in.readInt();
+        for (int i = 0; i < buckets; i++) {
+            int bucket = in.readInt();
+            if (bucket < 0 || bucket > LatencyHistogram.bucket(Long.MAX_VALUE)) {
+                throw new IOException("The sketch has an invalid bucket.");
+            }
+            if (bucket >= sketch.counts.length) {
+                sketch.counts = Arrays.copyOf(sketch.counts, bucket + 1);
+            }
+            sketch.counts[bucket] = in.readLong();
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,67 @@
+import java.awt.Font;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+public class RenderCache {
+
+    /** Font of a closed briefcase. */
+    public static final Font CASE_FONT = new Font("Dialog", Font.BOLD, 12);
+    /** Font of an opened briefcase. */
+    public static final Font CASH_FONT = new Font("Dialog", Font.PLAIN, 10);
+
+    /** Images that are decoded or being decoded, by file name. */
+    private static final ConcurrentHashMap<String, CompletableFuture<ImageIcon>> icons = new ConcurrentHashMap<>();
+
+    /**
+     * Should not be instantiated.
+     */
+    private RenderCache() {
+    }
+
+    /**
+     * Starts decoding images in parallel in the background, so they are ready by the time the board is drawn.
+     * Images that are already decoded or being decoded are skipped.
+     * @param fileNames the names of the image files, relative to this class.
+     */
+    public static void preload(String... fileNames) {
+        for (String fileName : fileNames) {
+            icons.computeIfAbsent(fileName, f -> CompletableFuture.supplyAsync(() -> decode(f)));
+        }
+    }
+
+    /**
+     * Accesses an image, decoding it the first time it is used,
+     * or waiting for it if it is still being decoded in the background.
+     * @param fileName the name of the image file, relative to this class.
+     * @return the image.
+     */
+    public static ImageIcon icon(String fileName) {
+        CompletableFuture<ImageIcon> icon = icons.get(fileName);
+        if (icon == null) {
+            icon = icons.computeIfAbsent(fileName, f -> CompletableFuture.completedFuture(decode(f)));
+        }
+        return icon.join();
+    }
+
+    /**
+     * Decodes an image.
+     * @param fileName the name of the image file, relative to this class.
+     * @return the image.
+     */
+    private static ImageIcon decode(String fileName) {
+        URL imageURL = RenderCache.class.getResource(fileName);
+        if (imageURL == null) {
+            throw new RuntimeException("Could not find file: \"" + fileName + "\"");
+        }
+        try {
+            return new ImageIcon(ImageIO.read(imageURL));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode file: \"" + fileName + "\"", e);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class Simulation {
+
+    /** Number of games a single task plays before it stops splitting. */
+    private static final long GAMES_PER_TASK = 10_000;
+
+    /** Array with all possible cash values. */
+    private final double[] cashValues;
+    /** A deal is taken when the offer is at least this fraction of the mean of the remaining cash. */
+    private final double dealRatio;
+    /** Flag that tracks if the player swaps for the final case. */
+    private final boolean swap;
+    /** Stream every game is logged to, or null if games are not logged. */
+    private OutputStream logStream;
+    /** Analytics every game is added to, or null if there are none. */
+    private GameAnalytics analytics;
+    /** Seed of the generator that is split between the tasks. */
+    private final long seed;
+    /** Name of the banker that makes the offers, built for each task's board. */
+    private String bankerName = "bradley";
+
+    /**
+     * Initialize the <code>Simulation</code> with a random seed.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param dealRatio the fraction of the remaining mean at which a deal is taken.
+     * @param swap true if the player swaps their case for the final case.
+     */
+    public Simulation(double[] moneyValues, double dealRatio, boolean swap) {
+        this(moneyValues, dealRatio, swap, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Initialize the <code>Simulation</code>. The same seed always plays the same games,
+     * no matter how many cores there are or how the tasks are scheduled.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param dealRatio the fraction of the remaining mean at which a deal is taken.
+     * @param swap true if the player swaps their case for the final case.
+     * @param seed the seed of the games.
+     */
+    public Simulation(double[] moneyValues, double dealRatio, boolean swap, long seed) {
+        if (moneyValues.length < 2) {
+            throw new IllegalArgumentException("There must be at least 2 money values.");
+        }
+        cashValues = moneyValues;
+        this.dealRatio = dealRatio;
+        this.swap = swap;
+        this.seed = seed;
+    }
+
+    /**
+     * Accesses the seed of the games.
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Changes the banker that makes the offers.
+     * @param name the name of the banker, as given to <code>Banker.create</code>.
+     * @throws IllegalArgumentException if there is no banker with the name.
+     */
+    public void setBanker(String name) {
+        Banker.create(name, new Briefcases(cashValues.clone()));
+        bankerName = name;
+    }
+
+    /**
+     * Logs the events of every game played. Each task logs whole games,
+     * so games played on different cores are never mixed.
+     * @param out the stream with a header already written by <code>GameLog.writeHeader</code>, or null.
+     */
+    public void setLog(OutputStream out) {
+        logStream = out;
+    }
+
+    /**
+     * Adds every game played to analytics. Each task adds its games to its own analytics,
+     * which are merged in once the task is done, so the tasks never wait for each other.
+     * @param gameAnalytics the analytics, or null.
+     */
+    public void setAnalytics(GameAnalytics gameAnalytics) {
+        analytics = gameAnalytics;
+    }
+
+    /**
+     * Plays games on all cores.
+     * @param games the number of games to play.
+     * @return an array with the number of games, the total earnings, and the total possible earnings, in cents.
+     */
+    public long[] run(long games) {
+        return ForkJoinPool.commonPool().invoke(new GamesTask(games, new SplittableRandom(seed)));
+    }
+
+    /**
+     * Plays one full game without the GUI.
+     * @param game the <code>Briefcases</code> object to play on.
+     */
+    private void play(Briefcases game) {
+        game.newGame();
+        play(game, dealRatio, swap);
+    }
+
+    /**
+     * Plays one full game that has been set up by <code>newGame()</code>.
+     * The cases are shuffled, so the player always keeps case 0 and opens the others in order.
+     * @param game the <code>Briefcases</code> object to play on.
+     * @param dealRatio the fraction of the remaining mean at which a deal is taken.
+     * @param swap true if the player swaps their case for the final case.
+     * @return true if the game ended with a deal.
+     */
+    static boolean play(Briefcases game, double dealRatio, boolean swap) {
+        game.caseChosen(0);
+        int next = 1;
+        while (!game.isDone(2)) {
+            if (game.dealOrNoDeal()) {
+
+                // Take the deal if the offer is good enough, otherwise keep playing
+                if (game.getOffer() >= dealRatio * game.getMean()) {
+                    game.caseOpened();
+                    game.tookDeal();
+                    return true;
+                }
+                game.caseOpened();
+            } else {
+                game.openCase(next++);
+            }
+        }
+
+        // Choose between the chosen case and the final case
+        game.updateLastCase(swap ? next : 0);
+        game.caseOpened();
+        return false;
+    }
+
+    /**
+     * Splits the games to play until each task is small enough to play on one thread.
+     * The generator is split along with the games, so every task has its own stream
+     * of seeds that only depends on where the task is in the tree of splits.
+     */
+    private class GamesTask extends RecursiveTask<long[]> {
+
+        /** Number of games for this task to play. */
+        private final long games;
+        /** Generator of the seeds of this task's games. */
+        private final SplittableRandom random;
+
+        /**
+         * Initialize the task.
+         * @param games the number of games to play.
+         * @param random the generator of the seeds of the games, used only by this task.
+         */
+        GamesTask(long games, SplittableRandom random) {
+            this.games = games;
+            this.random = random;
+        }
+
+        /**
+         * Plays the games or splits them between two subtasks.
+         * @return an array with the number of games, the total earnings, and the total possible earnings, in cents.
+         */
+        protected long[] compute() {
+            if (games <= GAMES_PER_TASK) {
+
+                // Each task has its own board, since Briefcases is not thread safe
+                Briefcases game = new Briefcases(cashValues.clone(), random);
+                game.setBanker(Banker.create(bankerName, game));
+                GameLog log = (logStream == null) ? null : new GameLog(logStream);
+                game.setLog(log);
+
+                // The events are handled on this thread as each batch is sent, since the tasks already use every core
+                GameAnalytics taskAnalytics = (analytics == null) ? null : new GameAnalytics();
+                GameEvents events = null;
+                if (taskAnalytics != null) {
+                    events = new GameEvents(Runnable::run, Flow.defaultBufferSize(), GameEvents.DEFAULT_BATCH_SIZE);
+                    events.consume(taskAnalytics);
+                    game.setEvents(events);
+                }
+                for (long i = 0; i < games; i++) {
+                    play(game);
+                }
+                if (log != null) {
+                    log.flush();
+                }
+                if (events != null) {
+                    events.close();
+                    synchronized (analytics) {
+                        analytics.merge(taskAnalytics);
+                    }
+                }
+                game.flushMetrics();
+                long[] stats = game.getStatisticsCents();
+                return new long[] {games, stats[2], stats[3]};
+            }
+            GamesTask left = new GamesTask(games / 2, random.split());
+            GamesTask right = new GamesTask(games - games / 2, random);
+            left.fork();
+            long[] result = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Runs a headless simulation and prints the results.
+     * @param args the number of games, the deal ratio, whether to swap, and optionally custom briefcase values.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3 || args.length == 4) {
+            Main.sendError("Usage: java -cp DealOrNoDeal.jar Simulation <games> <dealRatio> <swap> <Briefcase Values>");
+        }
+
+        // Parse the simulation settings
+        long games = 0;
+        double dealRatio = 0.0;
+        try {
+            games = Long.parseLong(args[0]);
+        } catch (Exception e) {
+            Main.sendError(args[0] + " is not a number of games.");
+        }
+        try {
+            dealRatio = Double.parseDouble(args[1]);
+        } catch (Exception e) {
+            Main.sendError(args[1] + " is not a number.");
+        }
+        boolean swap = Boolean.parseBoolean(args[2]);
+
+        // Use default values if no briefcase values are given
+        double[] arr;
+        if (args.length == 3) {
+            arr = new double[]{0.01, 1.0, 5.0, 10.0, 25.0, 50.0, 75.0, 100.0, 200.0, 300.0, 400.0, 500.0, 750.0,
+                    1000.0, 5000.0, 10000.0, 25000.0, 50000.0, 75000.0, 100000.0, 200000.0, 300000.0, 400000.0,
+                    500000.0, 750000.0, 1000000.0};
+        } else {
+            arr = new double[args.length - 3];
+            for (int i = 0; i < arr.length; i++) {
+                try {
+                    arr[i] = Double.parseDouble(args[i + 3]);
+                    if (arr[i] < 0.0) {
+                        Main.sendError(args[i + 3] + " is a negative number.");
+                    }
+                } catch (NumberFormatException e) {
+                    Main.sendError(args[i + 3] + " is not a number.");
+                }
+            }
+        }
+
+        // Use the seed if one is given, so the games can be played again
+        Simulation simulation;
+        String seed = System.getProperty("seed", "");
+        if (seed.isEmpty()) {
+            simulation = new Simulation(arr, dealRatio, swap);
+        } else {
+            try {
+                simulation = new Simulation(arr, dealRatio, swap, Long.parseLong(seed));
+            } catch (NumberFormatException e) {
+                Main.sendError(seed + " is not a seed.");
+                return;
+            }
+        }
+
+        // Use another banker if one is given
+        try {
+            simulation.setBanker(System.getProperty("banker", "bradley"));
+        } catch (IllegalArgumentException e) {
+            Main.sendError(e.getMessage());
+        }
+
+        // Log the games if a log file is given
+        String logFile = System.getProperty("gamelog", "");
+        OutputStream log = null;
+        if (!logFile.isEmpty()) {
+            try {
+                log = new BufferedOutputStream(new FileOutputStream(logFile), 1 << 16);
+                double[] sorted = arr.clone();
+                Arrays.sort(sorted);
+                GameLog.writeHeader(log, sorted);
+                simulation.setLog(log);
+            } catch (IOException e) {
+                Main.sendError("Could not write the game log: " + e.getMessage());
+            }
+        }
+
+        // Add the games to the stored analytics if an analytics file is given
+        String analyticsFile = System.getProperty("analytics", "");
+        GameAnalytics analytics = null;
+        if (!analyticsFile.isEmpty()) {
+            try {
+                analytics = GameAnalytics.open(Paths.get(analyticsFile));
+                simulation.setAnalytics(analytics);
+            } catch (IOException e) {
+                Main.sendError("Could not read the analytics: " + e.getMessage());
+            }
+        }
+
+        // Play the games and time them
+        GameMetrics.register();
+        long start = System.nanoTime();
+        long[] result = simulation.run(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                Main.sendError("Could not write the game log: " + e.getMessage());
+            }
+        }
+
+        // Print the results
+        DecimalFormat formatter = new DecimalFormat("#,##0.00");
+        System.out.println("Seed: " + simulation.getSeed());
+        System.out.println("Games: " + result[0]);
+        System.out.println("Games/second: " + formatter.format(result[0] / seconds));
+        System.out.println("Average Earnings: $" + Money.format(Money.divide(result[1], result[0])));
+        System.out.println("Average Possible Earnings: $" + Money.format(Money.divide(result[2], result[0])));
+        System.out.println("Total Earnings: $" + Money.format(result[1]));
+        System.out.println("Total Possible Earnings: $" + Money.format(result[2]));
+        if (analytics != null) {
+            try {
+                analytics.save(Paths.get(analyticsFile));
+            } catch (IOException e) {
+                Main.sendError("Could not write the analytics: " + e.getMessage());
+            }
+            analytics.report(System.out);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+import java.util.Arrays;
+
+public class Solver {
+
+    /** Largest number of states a board may need to solve, so a solve takes at most a few seconds. */
+    private static final long STATE_LIMIT = 1 << 21;
+    /** Default largest number of entries in the memo table of a number of remaining cash values (a power of 2). */
+    private static final int DEFAULT_MEMO_SIZE = 1 << 20;
+    /** Number of entries in the memo table of the values of saying "No Deal" that were asked for. */
+    private static final int NO_DEAL_MEMO_SIZE = 1 << 10;
+
+    /** Array with all possible cash values (sorted). */
+    private final double[] cashValues;
+    /** ith element is the index of the stage offered when i cash values remain, or -1 if there is none. */
+    private final int[] stageOfRemaining;
+    /** The index of the last stage with an offer. */
+    private final int lastStage;
+    /** ith element is the index of the first cash value equal to cash value #i. */
+    private final int[] firstEqual;
+    /** Flag that tracks if any cash values are repeated. */
+    private final boolean hasDuplicates;
+    /**
+     * ith element is the memo table of the states with i remaining cash values, or null if they are never looked up,
+     * with each key (bitset of remaining cash values, 0 if the slot is empty) followed by the bits of its value.
+     */
+    private final long[][] memo;
+    /** Memo table of the values of saying "No Deal" asked for by <code>noDealValue</code>, laid out like <code>memo</code>. */
+    private final long[] noDealMemo = new long[2 * NO_DEAL_MEMO_SIZE];
+    /** The banker that makes the offers. */
+    private final Banker banker;
+
+    /**
+     * Initialize the <code>Solver</code> for a board.
+     * @param game the <code>Briefcases</code> object with the cash values and stages.
+     */
+    public Solver(Briefcases game) {
+        this(game, DEFAULT_MEMO_SIZE);
+    }
+
+    /**
+     * Initialize the <code>Solver</code> for a board.
+     * @param game the <code>Briefcases</code> object with the cash values and stages.
+     * @param memoSize the largest number of entries in the memo table of a number of remaining cash values
+     *                 (rounded up to a power of 2). States that do not fit are worked out again each time they are reached.
+     */
+    public Solver(Briefcases game, int memoSize) {
+        if (!canSolve(game)) {
+            throw new IllegalArgumentException("The board is too large to solve exactly.");
+        }
+        cashValues = game.cashValues.clone();
+        banker = game.getBanker();
+
+        // Map the number of remaining cash values to the stage
+        stageOfRemaining = new int[cashValues.length + 1];
+        Arrays.fill(stageOfRemaining, -1);
+        int opened = 0;
+        for (int i = 0; i < game.numStages(); i++) {
+            opened += game.casesInRound(i);
+            stageOfRemaining[cashValues.length - opened] = i;
+        }
+        lastStage = game.numStages() - 1;
+
+        // Equal cash values are interchangeable, so states that only differ by them are the same
+        firstEqual = new int[cashValues.length];
+        boolean duplicates = false;
+        for (int i = 0; i < cashValues.length; i++) {
+            firstEqual[i] = (i > 0 && cashValues[i] == cashValues[i - 1]) ? firstEqual[i - 1] : i;
+            if (firstEqual[i] != i) duplicates = true;
+        }
+        hasDuplicates = duplicates;
+
+        // Keys and values are kept next to each other, so a lookup touches one cache line.
+        // Every state is a subset of the first offer's cash values, which bounds how many there are of each size.
+        int limit = Integer.highestOneBit(Math.max(2, memoSize - 1)) << 1;
+        int first = cashValues.length - game.casesInRound(0);
+        memo = new long[cashValues.length + 1][];
+        for (int n = first; n > cashValues.length - opened; n--) {
+            long states = combinations(first, n, limit);
+            int size = (int) Math.min(limit, Math.max(2, Long.highestOneBit(Math.max(1, states - 1)) << 1));
+            memo[n] = new long[2 * size];
+        }
+    }
+
+    /**
+     * Checks if a board is small enough to solve exactly. Every state from the first offer on
+     * is a subset of the first offer's cash values, with more cash values than the last offer.
+     * @param game the <code>Briefcases</code> object with the cash values and stages.
+     * @return true if the board has at most 64 cases, has offers, and has at most <code>STATE_LIMIT</code> states.
+     */
+    public static boolean canSolve(Briefcases game) {
+        if (game.size() > 64 || game.numStages() == 0) return false;
+        int first = game.size() - game.casesInRound(0);
+        int last = first;
+        for (int s = 1; s < game.numStages(); s++) {
+            last -= game.casesInRound(s);
+        }
+        long states = 0;
+        for (int n = first; n > last; n--) {
+            states += combinations(first, n, STATE_LIMIT);
+            if (states > STATE_LIMIT) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the expected value of saying "No Deal" at the current offer.
+     * @param remaining a bitset with a set bit for every cash value that has not been opened.
+     * @return the expected earnings of playing on optimally.
+     */
+    public synchronized double noDealValue(long remaining) {
+        int stage = stageOfRemaining[Long.bitCount(remaining)];
+        if (stage < 0) {
+            throw new IllegalArgumentException("The board is not at a stage with an offer.");
+        }
+        long key = canonical(remaining);
+        double value = lookup(noDealMemo, key);
+        if (Double.isNaN(value)) {
+            value = continueValue(key, total(remaining), stage);
+            store(noDealMemo, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Calculates the expected value of playing optimally from the current offer.
+     * @param remaining a bitset with a set bit for every cash value that has not been opened.
+     * @return the larger of the offer and the expected earnings of saying "No Deal".
+     */
+    public synchronized double optimalValue(long remaining) {
+        if (stageOfRemaining[Long.bitCount(remaining)] < 0) {
+            throw new IllegalArgumentException("The board is not at a stage with an offer.");
+        }
+        return value(canonical(remaining), total(remaining));
+    }
+
+    /**
+     * Checks if the optimal play is to take the offer.
+     * @param remaining a bitset with a set bit for every cash value that has not been opened.
+     * @return true if the offer is at least the expected value of saying "No Deal".
+     */
+    public boolean shouldDeal(long remaining) {
+        return offer(remaining) >= noDealValue(remaining);
+    }
+
+    /**
+     * Calculates the banker's offer for a set of remaining cash values.
+     * @param remaining a bitset with a set bit for every cash value that has not been opened.
+     * @return the offer.
+     */
+    public double offer(long remaining) {
+        return offer(remaining, total(remaining));
+    }
+
+    /**
+     * Calculates the banker's offer for a set of remaining cash values with a known total.
+     * The cash values are sorted, so the largest one is the highest set bit.
+     * @param remaining a bitset with a set bit for every cash value that has not been opened.
+     * @param total the total of the remaining cash values.
+     * @return the offer.
+     */
+    private double offer(long remaining, double total) {
+        double max = cashValues[63 - Long.numberOfLeadingZeros(remaining)];
+        int cnt = Long.bitCount(remaining);
+        return banker.offer(total, cnt, max, Math.max(0, stageOfRemaining[cnt]));
+    }
+
+    /**
+     * Adds up a set of cash values.
+     * @param remaining a bitset of cash values.
+     * @return the total of the cash values.
+     */
+    private double total(long remaining) {
+        double total = 0.0;
+        for (long bits = remaining; bits != 0; bits &= bits - 1) {
+            total += cashValues[Long.numberOfTrailingZeros(bits)];
+        }
+        return total;
+    }
+
+    /**
+     * Calculates the value of a state, looking it up in the memo table first. At an offer, this is the larger of
+     * the offer and the expected earnings of saying "No Deal". Partway through a round, this is the expected
+     * earnings of opening the rest of the round and playing on optimally.
+     * @param remaining a canonical bitset of the remaining cash values.
+     * @param total the total of the remaining cash values.
+     * @return the value of the state.
+     */
+    private double value(long remaining, double total) {
+        int n = Long.bitCount(remaining);
+        int stage = stageOfRemaining[n];
+
+        // The last offer only depends on the total and the largest value, which is quicker to work out than to look up
+        if (stage == lastStage) {
+            return Math.max(offer(remaining, total), total / n);
+        }
+        double value = lookup(memo[n], remaining);
+        if (!Double.isNaN(value)) return value;
+
+        value = openOne(remaining, total);
+        if (stage >= 0) {
+            value = Math.max(offer(remaining, total), value);
+        }
+        store(memo[n], remaining, value);
+        return value;
+    }
+
+    /**
+     * Looks up a state in a memo table. Each key has two slots, so a lookup touches one cache line.
+     * @param table the memo table.
+     * @param remaining a canonical bitset of the remaining cash values.
+     * @return the value of the state, or NaN if it is not in the table.
+     */
+    private static double lookup(long[] table, long remaining) {
+        int slot = (int) (mix(remaining) & (table.length - 4));
+        if (table[slot] == remaining) return Double.longBitsToDouble(table[slot + 1]);
+        if (table[slot + 2] == remaining) return Double.longBitsToDouble(table[slot + 3]);
+        return Double.NaN;
+    }
+
+    /**
+     * Adds a state to a memo table, keeping the newest entry in the first slot and moving the older one to the second slot.
+     * @param table the memo table.
+     * @param remaining a canonical bitset of the remaining cash values.
+     * @param value the value of the state.
+     */
+    private static void store(long[] table, long remaining, double value) {
+        int slot = (int) (mix(remaining) & (table.length - 4));
+        table[slot + 2] = table[slot];
+        table[slot + 3] = table[slot + 1];
+        table[slot] = remaining;
+        table[slot + 1] = Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * Calculates the expected earnings of saying "No Deal" and playing on optimally.
+     * @param remaining a canonical bitset of the remaining cash values.
+     * @param total the total of the remaining cash values.
+     * @param stage the index of the current stage.
+     * @return the expected earnings.
+     */
+    private double continueValue(long remaining, double total, int stage) {
+
+        // After the last offer, either of the last two cases is equally likely to be kept
+        if (stage == lastStage) {
+            return total / Long.bitCount(remaining);
+        }
+        return openOne(remaining, total);
+    }
+
+    /**
+     * Calculates the expected value of opening one more case. Every way to open a round's cases is equally likely,
+     * since the chosen case is just as unknown as the others, which is the same as opening them one at a time
+     * with each remaining case equally likely. Equal cash values are interchangeable, so each amount is opened once,
+     * weighted by how many cases have it, and takes the highest bit of its amount so the state stays canonical.
+     * @param remaining a canonical bitset of the remaining cash values.
+     * @param total the total of the remaining cash values.
+     * @return the expected value of the state after the case is opened.
+     */
+    private double openOne(long remaining, double total) {
+        double sum = 0.0;
+        for (long bits = remaining; bits != 0; ) {
+            int start = Long.numberOfTrailingZeros(bits);
+            int count = 0;
+            while (bits != 0 && firstEqual[Long.numberOfTrailingZeros(bits)] == start) {
+                bits &= bits - 1;
+                count++;
+            }
+            sum += count * value(remaining & ~(1L << (start + count - 1)), total - cashValues[start]);
+        }
+        return sum / Long.bitCount(remaining);
+    }
+
+    /**
+     * Replaces equal cash values in a bitset with the lowest of their indices.
+     * @param remaining a bitset of remaining cash values.
+     * @return the canonical bitset shared by all symmetric states.
+     */
+    private long canonical(long remaining) {
+        if (!hasDuplicates) return remaining;
+        long result = 0;
+        int i = 0;
+        while (i < cashValues.length) {
+            int start = i;
+            int count = 0;
+            while (i < cashValues.length && firstEqual[i] == start) {
+                if ((remaining & (1L << i)) != 0) count++;
+                i++;
+            }
+            for (int j = 0; j < count; j++) {
+                result |= 1L << (start + j);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the number of combinations, stopping once it is larger than a limit.
+     * @param n the number of items.
+     * @param k the number of items chosen.
+     * @param limit the largest number of combinations that are all checked.
+     * @return n choose k, or a number larger than <code>limit</code>.
+     */
+    static long combinations(int n, int k, long limit) {
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+            if (result > limit) return result;
+        }
+        return result;
+    }
+
+    /**
+     * Mixes the bits of a key to spread states over the memo table (SplitMix64 finalizer).
+     * @param key the bitset of remaining cash values.
+     * @return the mixed key.
+     */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
@@ -0,0 +1,35 @@
+public class StageBanker implements Banker {
+
+    /** Fraction of the mean offered at the first stage. */
+    private static final double FIRST_FRACTION = 0.15;
+    /** Fraction of the mean offered at the last stage. */
+    private static final double LAST_FRACTION = 0.95;
+
+    /** ith element is the fraction of the mean offered at stage #i. */
+    private final double[] fractions;
+
+    /**
+     * Initialize the <code>StageBanker</code>, precomputing the fraction of the mean offered at every stage.
+     * The fraction rises in even steps, like the offers on the show.
+     * @param numStages the number of stages of the board.
+     */
+    public StageBanker(int numStages) {
+        fractions = new double[Math.max(1, numStages)];
+        for (int i = 0; i < fractions.length; i++) {
+            double progress = (fractions.length == 1) ? 1.0 : (double) i / (fractions.length - 1);
+            fractions[i] = FIRST_FRACTION + (LAST_FRACTION - FIRST_FRACTION) * progress;
+        }
+    }
+
+    /**
+     * Calculates the offer as the stage's fraction of the mean, which is a single multiply.
+     * @param total the total money in the unopened cases.
+     * @param cnt the number of unopened cases.
+     * @param max the largest amount in the unopened cases (not used).
+     * @param stage the index of the stage of the offer.
+     * @return the offer.
+     */
+    public double offer(double total, int cnt, double max, int stage) {
+        return fractions[Math.min(stage, fractions.length - 1)] * (total / cnt);
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class StatsJournal implements Closeable {
+
+    /** Name of the journal file if none is given. */
+    public static final String DEFAULT_FILE = "DealOrNoDeal.stats";
+    /** First 4 bytes of a journal file ("DOND"). */
+    private static final int MAGIC = 0x444F4E44;
+    /** Version of the file layout, with the amounts in cents. */
+    private static final int VERSION = 1;
+    /** Size of the header, which holds the checkpoint of the totals. */
+    private static final int HEADER_SIZE = 64;
+    /** Size of a record of one game. */
+    private static final int RECORD_SIZE = 32;
+    /** Number of records the file grows by when it is full. */
+    private static final int RECORDS_PER_CHUNK = 4096;
+
+    /** Offset of the magic number in the header. */
+    private static final int MAGIC_OFFSET = 0;
+    /** Offset of the version in the header. */
+    private static final int VERSION_OFFSET = 4;
+    /** Offset of the number of games in the header. */
+    private static final int GAMES_OFFSET = 8;
+    /** Offset of the total earnings in the header. */
+    private static final int EARNINGS_OFFSET = 16;
+    /** Offset of the total possible earnings in the header. */
+    private static final int POSSIBLE_OFFSET = 24;
+    /** Offset of the checksum of the checkpoint in the header. */
+    private static final int CHECKSUM_OFFSET = 32;
+    /** Offset of the time in a record, written last so a record is only counted once it is complete. */
+    private static final int TIME_OFFSET = 0;
+    /** Offset of the earnings in a record. */
+    private static final int RECORD_EARNINGS_OFFSET = 8;
+    /** Offset of the possible earnings in a record. */
+    private static final int RECORD_POSSIBLE_OFFSET = 16;
+    /** Offset of the number of cases in a record. */
+    private static final int CASES_OFFSET = 24;
+    /** Offset of the flags in a record. */
+    private static final int FLAGS_OFFSET = 28;
+
+    /** Flag set in a record when the game ended with a deal. */
+    private static final int DEAL_FLAG = 1;
+
+    /** Channel of the journal file. */
+    private final FileChannel channel;
+    /** Mapping of the whole file, remapped when the file grows. */
+    private MappedByteBuffer map;
+    /** Number of games in the journal. */
+    private long games;
+    /** Total earnings of the games in the journal, in cents. */
+    private long totalEarnings;
+    /** Total possible earnings of the games in the journal, in cents. */
+    private long totalPossible;
+    /** Single thread that writes the records, so the event dispatch thread never touches the file. */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stats-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Opens a journal, creating it if it does not exist. The totals are restored from
+     * the checkpoint in the header, and only records written after it are read.
+     * @param file the path of the journal file.
+     * @throws IOException if the file cannot be opened or is not a journal.
+     */
+    public StatsJournal(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size == 0) {
+            map(HEADER_SIZE + (long) RECORDS_PER_CHUNK * RECORD_SIZE);
+            map.putInt(MAGIC_OFFSET, MAGIC);
+            map.putInt(VERSION_OFFSET, VERSION);
+            writeCheckpoint();
+            return;
+        }
+        if (size < HEADER_SIZE) {
+            channel.close();
+            throw new IOException(file + " is not a statistics journal.");
+        }
+        map(size);
+        if (map.getInt(MAGIC_OFFSET) != MAGIC || map.getInt(VERSION_OFFSET) != VERSION) {
+            channel.close();
+            throw new IOException(file + " is not a statistics journal.");
+        }
+
+        // Use the checkpoint if it is intact, otherwise add up every record
+        long checkpointGames = map.getLong(GAMES_OFFSET);
+        long checkpointEarnings = map.getLong(EARNINGS_OFFSET);
+        long checkpointPossible = map.getLong(POSSIBLE_OFFSET);
+        if (map.getLong(CHECKSUM_OFFSET) == checksum(checkpointGames, checkpointEarnings, checkpointPossible)
+                && checkpointGames >= 0 && checkpointGames <= capacity()) {
+            games = checkpointGames;
+            totalEarnings = checkpointEarnings;
+            totalPossible = checkpointPossible;
+        }
+
+        // Roll forward over records that were written after the last checkpoint
+        while (games < capacity() && map.getLong(recordOffset(games) + TIME_OFFSET) != 0) {
+            int offset = recordOffset(games);
+            totalEarnings += map.getLong(offset + RECORD_EARNINGS_OFFSET);
+            totalPossible += map.getLong(offset + RECORD_POSSIBLE_OFFSET);
+            games++;
+        }
+        writeCheckpoint();
+    }
+
+    /**
+     * Accesses the number of games in the journal.
+     * @return the number of games.
+     */
+    public synchronized long getGames() {
+        return games;
+    }
+
+    /**
+     * Accesses the totals of the games in the journal, in the form used by <code>Briefcases.updateStatisticsCents</code>.
+     * @return an array with the total earnings and the total possible earnings, in cents.
+     */
+    public synchronized long[] getTotals() {
+        return new long[] {totalEarnings, totalPossible};
+    }
+
+    /**
+     * Adds a finished game to the journal. The record is written on the journal's own thread,
+     * so this returns immediately and can be called from the event dispatch thread.
+     * @param earnings the amount won, in cents.
+     * @param possible the amount that could have been won, in cents.
+     * @param cases the number of cases on the board.
+     * @param deal true if the game ended with a deal.
+     */
+    public void append(long earnings, long possible, int cases, boolean deal) {
+        long time = System.currentTimeMillis();
+        writer.execute(() -> write(time, earnings, possible, cases, deal));
+    }
+
+    /**
+     * Writes a record and then the checkpoint, so a crash between the two only loses the checkpoint.
+     * @param time the time the game ended, in milliseconds since the epoch.
+     * @param earnings the amount won, in cents.
+     * @param possible the amount that could have been won, in cents.
+     * @param cases the number of cases on the board.
+     * @param deal true if the game ended with a deal.
+     */
+    private synchronized void write(long time, long earnings, long possible, int cases, boolean deal) {
+        try {
+            if (games == capacity()) {
+                map(map.capacity() + (long) RECORDS_PER_CHUNK * RECORD_SIZE);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not grow the statistics journal: " + e.getMessage());
+            return;
+        }
+        int offset = recordOffset(games);
+        map.putLong(offset + RECORD_EARNINGS_OFFSET, earnings);
+        map.putLong(offset + RECORD_POSSIBLE_OFFSET, possible);
+        map.putInt(offset + CASES_OFFSET, cases);
+        map.putInt(offset + FLAGS_OFFSET, (deal) ? DEAL_FLAG : 0);
+        map.putLong(offset + TIME_OFFSET, Math.max(1, time));
+        games++;
+        totalEarnings += earnings;
+        totalPossible += possible;
+        writeCheckpoint();
+    }
+
+    /**
+     * Waits for the pending records and flushes the file to disk.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            map.force();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Writes the number of games and the totals to the header.
+     */
+    private void writeCheckpoint() {
+        map.putLong(GAMES_OFFSET, games);
+        map.putLong(EARNINGS_OFFSET, totalEarnings);
+        map.putLong(POSSIBLE_OFFSET, totalPossible);
+        map.putLong(CHECKSUM_OFFSET, checksum(games, totalEarnings, totalPossible));
+    }
+
+    /**
+     * Maps the file, growing it if needed.
+     * @param size the size of the mapping in bytes.
+     * @throws IOException if the file cannot be mapped.
+     */
+    private void map(long size) throws IOException {
+        long records = Math.max(0, (size - HEADER_SIZE + RECORD_SIZE - 1) / RECORD_SIZE);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + records * RECORD_SIZE);
+    }
+
+    /**
+     * Accesses the number of records that fit in the mapping.
+     * @return the number of records.
+     */
+    private long capacity() {
+        return (map.capacity() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * Finds where a record starts.
+     * @param record the index of the record.
+     * @return the offset of the record in the file.
+     */
+    private static int recordOffset(long record) {
+        return (int) (HEADER_SIZE + record * RECORD_SIZE);
+    }
+
+    /**
+     * Combines the checkpoint values, so a header that was only partly written is detected.
+     * @param games the number of games.
+     * @param earnings the bits of the total earnings.
+     * @param possible the bits of the total possible earnings.
+     * @return the checksum.
+     */
+    private static long checksum(long games, long earnings, long possible) {
+        long hash = games * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ earnings) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ possible) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31) ^ MAGIC;
+    }
+}
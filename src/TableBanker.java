@@ -0,0 +1,50 @@
+public class TableBanker implements Banker {
+
+    /** ith element is the part of the formula that only depends on the number of unopened cases being i. */
+    private final double[] countTerms;
+    /** Coefficient of the mean. */
+    private final double meanTerm;
+    /** Coefficient of the mean squared. */
+    private final double meanSquaredTerm;
+    /** Coefficient of the largest amount. */
+    private final double maxTerm;
+
+    /**
+     * Initialize the <code>TableBanker</code> with Samuel D. Bradley's coefficients.
+     * @param size the number of briefcases on the board.
+     */
+    public TableBanker(int size) {
+        this(new BradleyBanker(), size);
+    }
+
+    /**
+     * Initialize the <code>TableBanker</code> with the coefficients of a formula, precomputing the terms of the formula for every number of cases.
+     * @param formula the banker whose coefficients are used, such as one calibrated for the board.
+     * @param size the number of briefcases on the board.
+     */
+    public TableBanker(BradleyBanker formula, int size) {
+        double[] c = formula.getCoefficients();
+        countTerms = new double[size + 1];
+        for (int cnt = 0; cnt <= size; cnt++) {
+            countTerms[cnt] = c[0] + c[2] * cnt + c[5] * cnt * cnt;
+        }
+        meanTerm = c[1];
+        meanSquaredTerm = c[4];
+        maxTerm = c[3];
+    }
+
+    /**
+     * Calculates the offer with Bradley's formula, using the table for the terms of the number of cases,
+     * so an offer is a division and a few multiply-adds. Offers match <code>BradleyBanker</code> up to rounding.
+     * @param total the total money in the unopened cases.
+     * @param cnt the number of unopened cases.
+     * @param max the largest amount in the unopened cases.
+     * @param stage the index of the stage of the offer (not used).
+     * @return the offer.
+     */
+    public double offer(double total, int cnt, double max, int stage) {
+        double mean = total / cnt;
+        double value = countTerms[cnt] + mean * (meanTerm + meanSquaredTerm * mean) + maxTerm * max;
+        return (value > 0 && !(value > max)) ? value : mean;
+    }
+}
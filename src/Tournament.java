@@ -0,0 +1,301 @@
+import java.io.PrintStream;
+import java.text.DecimalFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class Tournament {
+
+    /** Number of games a single task plays before it stops splitting. */
+    private static final long GAMES_PER_TASK = 10_000;
+    /** Default number of games played between rows of results. */
+    public static final long DEFAULT_INTERVAL = 1_000_000;
+    /** Header of the CSV results. */
+    public static final String CSV_HEADER = "games,strategy,earnings,possible,average_earnings,average_possible,deals";
+
+    /** Array with all possible cash values. */
+    private final double[] cashValues;
+    /** The strategies that play every board. */
+    private final Strategy[] strategies;
+    /** Seed of the generator that is split between the intervals and tasks. */
+    private final long seed;
+    /** Name of the banker that makes the offers, built for each task's boards. */
+    private String bankerName = "bradley";
+
+    /**
+     * Initialize the <code>Tournament</code>. The same seed always plays the same boards,
+     * no matter how many cores there are or how the tasks are scheduled.
+     * @param moneyValues an array with the possible cash values in the cases.
+     * @param strategies the strategies, which all play the same boards.
+     * @param seed the seed of the boards.
+     */
+    public Tournament(double[] moneyValues, Strategy[] strategies, long seed) {
+        if (moneyValues.length < 2) {
+            throw new IllegalArgumentException("There must be at least 2 money values.");
+        }
+        if (strategies.length == 0) {
+            throw new IllegalArgumentException("There must be at least 1 strategy.");
+        }
+        cashValues = moneyValues;
+        this.strategies = strategies;
+        this.seed = seed;
+    }
+
+    /**
+     * Changes the banker that makes the offers.
+     * @param name the name of the banker, as given to <code>Banker.create</code>.
+     * @throws IllegalArgumentException if there is no banker with the name.
+     */
+    public void setBanker(String name) {
+        Banker.create(name, new Briefcases(cashValues.clone()));
+        bankerName = name;
+    }
+
+    /**
+     * Plays the games on all cores, writing a CSV row for every strategy after each interval.
+     * Only the running totals are kept, so the memory used does not depend on the number of games.
+     * @param games the number of games each strategy plays.
+     * @param interval the number of games played between rows.
+     * @param out the stream the rows are written to, after the header.
+     * @return an array with the total earnings and total possible earnings in cents, and number of deals of each strategy, one after the other.
+     */
+    public long[] run(long games, long interval, PrintStream out) {
+        long[] totals = new long[3 * strategies.length];
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder row = new StringBuilder(128);
+        out.println(CSV_HEADER);
+        for (long played = 0; played < games; ) {
+
+            // Each interval gets its own split, so the boards only depend on the seed and the interval
+            long count = Math.min(interval, games - played);
+            long[] result = ForkJoinPool.commonPool().invoke(new TournamentTask(count, random.split()));
+            played += count;
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += result[i];
+            }
+
+            // Write the running totals, so a long run can be watched or stopped early
+            for (int s = 0; s < strategies.length; s++) {
+                row.setLength(0);
+                row.append(played).append(',').append(strategies[s].getName()).append(',');
+                Money.append(row, totals[3 * s]).append(',');
+                Money.append(row, totals[3 * s + 1]).append(',');
+                Money.append(row, Money.divide(totals[3 * s], played)).append(',');
+                Money.append(row, Money.divide(totals[3 * s + 1], played));
+                row.append(',').append(totals[3 * s + 2]);
+                out.println(row);
+            }
+            out.flush();
+        }
+        return totals;
+    }
+
+    /**
+     * A way to play: take a deal once the offer is at least a fraction of the mean
+     * of the remaining cash, and keep or swap the chosen case at the final two.
+     */
+    public static class Strategy {
+
+        /** Name of the strategy, as it was parsed. */
+        private final String name;
+        /** A deal is taken when the offer is at least this fraction of the mean of the remaining cash. */
+        private final double dealRatio;
+        /** Flag that tracks if the player swaps for the final case. */
+        private final boolean swap;
+
+        /**
+         * Initialize the <code>Strategy</code>.
+         * @param name the name of the strategy.
+         * @param dealRatio the fraction of the remaining mean at which a deal is taken, or infinity to never deal.
+         * @param swap true if the player swaps their case for the final case.
+         */
+        public Strategy(String name, double dealRatio, boolean swap) {
+            this.name = name;
+            this.dealRatio = dealRatio;
+            this.swap = swap;
+        }
+
+        /**
+         * Parses a strategy: a deal ratio such as "0.9" or "never",
+         * followed by "+swap" to swap for the final case.
+         * @param text the strategy.
+         * @return the strategy.
+         * @throws IllegalArgumentException if the text is not a strategy.
+         */
+        public static Strategy parse(String text) {
+            String ratio = text;
+            boolean swap = false;
+            if (ratio.endsWith("+swap")) {
+                ratio = ratio.substring(0, ratio.length() - "+swap".length());
+                swap = true;
+            }
+            if (ratio.equals("never")) {
+                return new Strategy(text, Double.POSITIVE_INFINITY, swap);
+            }
+            try {
+                double dealRatio = Double.parseDouble(ratio);
+                if (!(dealRatio >= 0.0)) {
+                    throw new IllegalArgumentException(text + " has a negative deal ratio.");
+                }
+                return new Strategy(text, dealRatio, swap);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(text + " is not a strategy.");
+            }
+        }
+
+        /**
+         * Accesses the name of the strategy.
+         * @return the name.
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Splits the games to play until each task is small enough to play on one thread.
+     * The generator is split along with the games, so every task has its own stream
+     * of seeds that only depends on where the task is in the tree of splits.
+     */
+    private class TournamentTask extends RecursiveTask<long[]> {
+
+        /** Number of games for this task to play. */
+        private final long games;
+        /** Generator of the seeds of this task's boards. */
+        private final SplittableRandom random;
+
+        /**
+         * Initialize the task.
+         * @param games the number of games to play.
+         * @param random the generator of the seeds of the boards, used only by this task.
+         */
+        TournamentTask(long games, SplittableRandom random) {
+            this.games = games;
+            this.random = random;
+        }
+
+        /**
+         * Plays the games or splits them between two subtasks.
+         * @return an array with the earnings and possible earnings in cents, and number of deals of each strategy.
+         */
+        protected long[] compute() {
+            if (games <= GAMES_PER_TASK) {
+
+                // Every strategy has its own board, which is dealt the same seeds as the others
+                Briefcases[] boards = new Briefcases[strategies.length];
+                for (int s = 0; s < boards.length; s++) {
+                    boards[s] = new Briefcases(cashValues.clone(), 0L);
+                    boards[s].setBanker(Banker.create(bankerName, boards[s]));
+                }
+                long[] result = new long[3 * strategies.length];
+                for (long i = 0; i < games; i++) {
+                    long boardSeed = random.nextLong();
+                    for (int s = 0; s < boards.length; s++) {
+                        boards[s].newGame(boardSeed);
+                        if (Simulation.play(boards[s], strategies[s].dealRatio, strategies[s].swap)) {
+                            result[3 * s + 2]++;
+                        }
+                    }
+                }
+                for (int s = 0; s < boards.length; s++) {
+                    boards[s].flushMetrics();
+                    long[] stats = boards[s].getStatisticsCents();
+                    result[3 * s] = stats[2];
+                    result[3 * s + 1] = stats[3];
+                }
+                return result;
+            }
+            TournamentTask left = new TournamentTask(games / 2, random.split());
+            TournamentTask right = new TournamentTask(games - games / 2, random);
+            left.fork();
+            long[] result = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Runs a tournament and writes the results as CSV.
+     * @param args the number of games, the strategies separated by commas, and optionally custom briefcase values.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length == 3) {
+            Main.sendError("Usage: java -cp DealOrNoDeal.jar Tournament <games> <strategies> <Briefcase Values>");
+        }
+
+        // Parse the tournament settings
+        long games = 0;
+        try {
+            games = Long.parseLong(args[0]);
+        } catch (NumberFormatException e) {
+            Main.sendError(args[0] + " is not a number of games.");
+        }
+        String[] names = args[1].split(",");
+        Strategy[] strategies = new Strategy[names.length];
+        for (int i = 0; i < names.length; i++) {
+            try {
+                strategies[i] = Strategy.parse(names[i].trim());
+            } catch (IllegalArgumentException e) {
+                Main.sendError(e.getMessage());
+            }
+        }
+        long interval = DEFAULT_INTERVAL;
+        try {
+            interval = Long.parseLong(System.getProperty("interval", Long.toString(DEFAULT_INTERVAL)));
+        } catch (NumberFormatException e) {
+            Main.sendError(System.getProperty("interval") + " is not a number of games.");
+        }
+        if (interval <= 0) {
+            Main.sendError("The interval must be at least 1 game.");
+        }
+
+        // Use default values if no briefcase values are given
+        double[] arr;
+        if (args.length == 2) {
+            arr = new double[]{0.01, 1.0, 5.0, 10.0, 25.0, 50.0, 75.0, 100.0, 200.0, 300.0, 400.0, 500.0, 750.0,
+                    1000.0, 5000.0, 10000.0, 25000.0, 50000.0, 75000.0, 100000.0, 200000.0, 300000.0, 400000.0,
+                    500000.0, 750000.0, 1000000.0};
+        } else {
+            arr = new double[args.length - 2];
+            for (int i = 0; i < arr.length; i++) {
+                try {
+                    arr[i] = Double.parseDouble(args[i + 2]);
+                    if (arr[i] < 0.0) {
+                        Main.sendError(args[i + 2] + " is a negative number.");
+                    }
+                } catch (NumberFormatException e) {
+                    Main.sendError(args[i + 2] + " is not a number.");
+                }
+            }
+        }
+
+        // Use the seed if one is given, so the boards can be played again
+        long seed = new SplittableRandom().nextLong();
+        String seedProperty = System.getProperty("seed", "");
+        if (!seedProperty.isEmpty()) {
+            try {
+                seed = Long.parseLong(seedProperty);
+            } catch (NumberFormatException e) {
+                Main.sendError(seedProperty + " is not a seed.");
+            }
+        }
+        Tournament tournament = new Tournament(arr, strategies, seed);
+        try {
+            tournament.setBanker(System.getProperty("banker", "bradley"));
+        } catch (IllegalArgumentException e) {
+            Main.sendError(e.getMessage());
+        }
+
+        // Play the games and time them, keeping standard output for the CSV
+        GameMetrics.register();
+        long start = System.nanoTime();
+        tournament.run(games, interval, System.out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        DecimalFormat formatter = new DecimalFormat("#,##0.00");
+        System.err.println("Seed: " + seed);
+        System.err.println("Games/second: " + formatter.format(games * strategies.length / seconds));
+    }
+}
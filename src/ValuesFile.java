@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+
+public class ValuesFile {
+
+    /** Largest number of digits that are added up exactly in a <code>long</code>. */
+    private static final int MAX_DIGITS = 18;
+    /** ith element is 10 to the power of i, for every power that is exact in a <code>double</code>. */
+    private static final double[] POWERS_OF_TEN = new double[23];
+    /** Largest mantissa that is exact in a <code>double</code>. */
+    private static final long MAX_EXACT = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    /**
+     * Should not be instantiated.
+     */
+    private ValuesFile() {
+    }
+
+    /**
+     * Reads the cash values of a board from a text file, with the values separated by
+     * whitespace or commas. The file is memory-mapped and parsed in place into a
+     * primitive array, so files with millions of values are read without a line or
+     * a <code>Double</code> for each of them. The values are checked in parallel.
+     * @param file the file.
+     * @return the cash values, in the order they are in the file.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if a value is not a number or is negative, or there are fewer than 2 values.
+     */
+    public static double[] read(Path file) throws IOException {
+        double[] values;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The values file is larger than 2 GB.");
+            }
+            values = parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("There must be at least 2 money values.");
+        }
+
+        // Check the values on all cores
+        final double[] checked = values;
+        OptionalInt invalid = IntStream.range(0, checked.length).parallel()
+                .filter(i -> !(checked[i] >= 0.0) || checked[i] == Double.POSITIVE_INFINITY)
+                .findFirst();
+        if (invalid.isPresent()) {
+            double value = checked[invalid.getAsInt()];
+            throw new IllegalArgumentException(value + ((value < 0.0) ? " is a negative number." : " is not a cash value."));
+        }
+        return values;
+    }
+
+    /**
+     * Parses every value in a buffer.
+     * @param buffer the bytes of the file.
+     * @return the values.
+     * @throws IllegalArgumentException if a value is not a number.
+     */
+    private static double[] parse(MappedByteBuffer buffer) {
+        double[] values = new double[1024];
+        int count = 0;
+        int limit = buffer.limit();
+        int i = 0;
+        while (i < limit) {
+
+            // Skip to the start of the next value
+            byte b = buffer.get(i);
+            if (b == ' ' || b == ',' || b == '\n' || b == '\r' || b == '\t') {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < limit && (b = buffer.get(i)) != ' ' && b != ',' && b != '\n' && b != '\r' && b != '\t') {
+                i++;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = parseValue(buffer, start, i);
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Parses one value. Plain decimals such as "1000" or "0.01" are parsed without creating any objects,
+     * and are rounded the same way as <code>Double.parseDouble</code>. Anything else falls back to it.
+     * @param buffer the bytes of the file.
+     * @param start the index of the first byte of the value.
+     * @param end the index after the last byte of the value.
+     * @return the value.
+     * @throws IllegalArgumentException if the value is not a number.
+     */
+    private static double parseValue(MappedByteBuffer buffer, int start, int end) {
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        boolean plain = end - start <= MAX_DIGITS + 1;
+        for (int i = start; i < end && plain; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction >= 0) fraction++;
+            } else if (b == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                plain = false;
+            }
+        }
+
+        // Both parts are exact doubles, so a single division rounds correctly
+        if (plain && digits > 0 && mantissa <= MAX_EXACT) {
+            return (fraction <= 0) ? mantissa : mantissa / POWERS_OF_TEN[fraction];
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        String text = new String(bytes, StandardCharsets.US_ASCII);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(text + " is not a number.");
+        }
+    }
+}